@@ -0,0 +1,43 @@
+package com.joonsang.example.QueryDSL.benchmark;
+
+import com.joonsang.example.QueryDSL.QueryDslApplication;
+import com.joonsang.example.QueryDSL.init.MemberBulkLoader;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * 벤치마크용 스프링 컨텍스트
+ * - 인메모리 H2 에 memberCount 명을 적재해서 시작한다. (크기별로 별도 DB)
+ * - SQL 로그, p6spy 로그는 측정에 영향을 주므로 끈다.
+ * - 같은 조건을 반복 실행하므로, 캐시를 켜 두면 첫 호출 이후는 카운트 캐시(MemberCountCache) / Team 2차 캐시, 쿼리 캐시 히트를 측정하게 된다.
+ *   caches = false 면 모두 끄고 매번 DB 를 조회한다.
+ */
+final class BenchmarkContext {
+
+    static final int TEAM_COUNT = 10;
+
+    private BenchmarkContext() {
+    }
+
+    static ConfigurableApplicationContext start(long memberCount) {
+        return start(memberCount, false);
+    }
+
+    static ConfigurableApplicationContext start(long memberCount, boolean caches) {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(QueryDslApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(
+                        "--spring.profiles.active=bench",
+                        "--spring.datasource.url=jdbc:h2:mem:bench" + memberCount + ";DB_CLOSE_DELAY=-1",
+                        "--spring.jpa.properties.hibernate.use_sql_comments=false",
+                        "--spring.jpa.properties.hibernate.cache.use_second_level_cache=" + caches,
+                        "--spring.jpa.properties.hibernate.cache.use_query_cache=" + caches,
+                        "--member.count-cache.max-size=" + (caches ? 1000 : 0),
+                        "--decorator.datasource.p6spy.enable-logging=false",
+                        "--logging.level.root=warn");
+
+        context.getBean(MemberBulkLoader.class).load(TEAM_COUNT, memberCount);
+        return context;
+    }
+}
@@ -0,0 +1,121 @@
+package com.joonsang.example.QueryDSL.benchmark;
+
+import com.joonsang.example.QueryDSL.dto.MemberDto;
+import com.joonsang.example.QueryDSL.dto.QMemberDto;
+import com.joonsang.example.QueryDSL.entity.Member;
+import com.querydsl.core.types.Projections;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static com.joonsang.example.QueryDSL.entity.QMember.member;
+import static com.joonsang.example.QueryDSL.entity.QTeam.team;
+
+/**
+ * Projection 방식별 / 페치 조인 여부별 처리량
+ * - @QueryProjection(생성자) vs Projections.bean / fields / constructor
+ * - 페치 조인 vs 지연 로딩(N+1)
+ * - caches : 카운트 캐시 / 2차 캐시 끔(DB 조회) vs 켬(캐시 히트)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class MemberProjectionBenchmark {
+
+    private static final int LIMIT = 100;
+
+    @Param({"1000", "10000", "100000"})
+    long memberCount;
+
+    @Param({"false", "true"})
+    boolean caches;
+
+    ConfigurableApplicationContext context;
+    JPAQueryFactory queryFactory;
+    TransactionTemplate readOnlyTx;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start(memberCount, caches);
+        queryFactory = context.getBean(JPAQueryFactory.class);
+
+        readOnlyTx = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnlyTx.setReadOnly(true);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<MemberDto> queryProjection() {
+        return queryFactory
+                .select(new QMemberDto(member.username, member.age))
+                .from(member)
+                .limit(LIMIT)
+                .fetch();
+    }
+
+    @Benchmark
+    public List<MemberDto> projectionBean() {
+        return queryFactory
+                .select(Projections.bean(MemberDto.class, member.username, member.age))
+                .from(member)
+                .limit(LIMIT)
+                .fetch();
+    }
+
+    @Benchmark
+    public List<MemberDto> projectionFields() {
+        return queryFactory
+                .select(Projections.fields(MemberDto.class, member.username, member.age))
+                .from(member)
+                .limit(LIMIT)
+                .fetch();
+    }
+
+    @Benchmark
+    public List<MemberDto> projectionConstructor() {
+        return queryFactory
+                .select(Projections.constructor(MemberDto.class, member.username, member.age))
+                .from(member)
+                .limit(LIMIT)
+                .fetch();
+    }
+
+    @Benchmark
+    public void fetchJoin(Blackhole blackhole) {
+        readOnlyTx.executeWithoutResult(status -> {
+            List<Member> members = queryFactory
+                    .selectFrom(member)
+                    .join(member.team, team).fetchJoin()
+                    .limit(LIMIT)
+                    .fetch();
+
+            for (Member m : members) {
+                blackhole.consume(m.getTeam().getName());
+            }
+        });
+    }
+
+    @Benchmark
+    public void lazyLoading(Blackhole blackhole) {
+        readOnlyTx.executeWithoutResult(status -> {
+            List<Member> members = queryFactory
+                    .selectFrom(member)
+                    .limit(LIMIT)
+                    .fetch();
+
+            for (Member m : members) {
+                blackhole.consume(m.getTeam().getName());
+            }
+        });
+    }
+}
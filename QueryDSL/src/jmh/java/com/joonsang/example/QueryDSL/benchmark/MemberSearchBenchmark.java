@@ -0,0 +1,80 @@
+package com.joonsang.example.QueryDSL.benchmark;
+
+import com.joonsang.example.QueryDSL.dto.MemberSearchCondition;
+import com.joonsang.example.QueryDSL.dto.MemberTeamDto;
+import com.joonsang.example.QueryDSL.repository.MemberRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 동적 쿼리 / 페이징 방식별 처리량
+ * - search vs searchByBuilder
+ * - searchPageSimple vs searchPageSimple2 vs searchPageSimple3
+ * - caches : 카운트 캐시 / 2차 캐시 끔(DB 조회) vs 켬(캐시 히트)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class MemberSearchBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    long memberCount;
+
+    @Param({"false", "true"})
+    boolean caches;
+
+    ConfigurableApplicationContext context;
+    MemberRepository memberRepository;
+
+    MemberSearchCondition condition;
+    Pageable pageable;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start(memberCount, caches);
+        memberRepository = context.getBean(MemberRepository.class);
+
+        condition = new MemberSearchCondition();
+        condition.setTeamName("team1");
+        condition.setAgeGoe(10);
+        condition.setAgeLoe(60);
+
+        pageable = PageRequest.of(3, 20);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<MemberTeamDto> search() {
+        return memberRepository.search(condition);
+    }
+
+    @Benchmark
+    public List<MemberTeamDto> searchByBuilder() {
+        return memberRepository.searchByBuilder(condition);
+    }
+
+    @Benchmark
+    public Page<MemberTeamDto> searchPageSimple() {
+        return memberRepository.searchPageSimple(condition, pageable);
+    }
+
+    @Benchmark
+    public Page<MemberTeamDto> searchPageSimple2() {
+        return memberRepository.searchPageSimple2(condition, pageable);
+    }
+
+    @Benchmark
+    public Page<MemberTeamDto> searchPageSimple3() {
+        return memberRepository.searchPageSimple3(condition, pageable);
+    }
+}
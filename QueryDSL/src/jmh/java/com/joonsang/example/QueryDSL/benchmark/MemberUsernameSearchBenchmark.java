@@ -0,0 +1,102 @@
+package com.joonsang.example.QueryDSL.benchmark;
+
+import com.joonsang.example.QueryDSL.dto.MemberTeamDto;
+import com.joonsang.example.QueryDSL.dto.QMemberTeamDto;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.jpa.JPAExpressions;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static com.joonsang.example.QueryDSL.entity.MemberUsernameGram.GRAM_SIZE;
+import static com.joonsang.example.QueryDSL.entity.QMember.member;
+import static com.joonsang.example.QueryDSL.entity.QMemberUsernameGram.memberUsernameGram;
+import static com.joonsang.example.QueryDSL.entity.QTeam.team;
+
+/**
+ * 회원명 부분 검색 응답 시간 (회원 100만 명)
+ * - prefix   : 범위 조건(idx_member_username) vs like 'x%'
+ * - contains : 3-gram 색인 vs like '%x%' 전체 스캔
+ * - 네 가지 모두 MemberRepository.search() 와 같은 select(MemberTeamDto) / team 조인으로, where 절만 다르게
+ *   (MemberPredicates 의 범위 / gram 조건을 그대로 옮김, 쿼리 템플릿 캐시나 팀명 조회 비용은 빼고 비교)
+ * - 회원명은 "member" + 번호 (MemberBulkLoader)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class MemberUsernameSearchBenchmark {
+
+    private static final String PREFIX = "member12345";
+    private static final String PREFIX_UPPER_BOUND = "member12346";
+    private static final String KEYWORD = "23456";
+
+    @Param({"1000000"})
+    long memberCount;
+
+    ConfigurableApplicationContext context;
+    JPAQueryFactory queryFactory;
+
+    Set<String> keywordGrams;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start(memberCount);
+        queryFactory = context.getBean(JPAQueryFactory.class);
+
+        keywordGrams = new LinkedHashSet<>();
+        for (int i = 0; i + GRAM_SIZE <= KEYWORD.length(); i++) {
+            keywordGrams.add(KEYWORD.substring(i, i + GRAM_SIZE));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<MemberTeamDto> prefixRange() {
+        return search(member.username.goe(PREFIX).and(member.username.lt(PREFIX_UPPER_BOUND)));
+    }
+
+    @Benchmark
+    public List<MemberTeamDto> prefixLike() {
+        return search(member.username.startsWith(PREFIX));
+    }
+
+    @Benchmark
+    public List<MemberTeamDto> containsGramIndex() {
+        return search(member.id.in(
+                JPAExpressions
+                        .select(memberUsernameGram.memberId)
+                        .from(memberUsernameGram)
+                        .where(memberUsernameGram.gram.in(keywordGrams))
+                        .groupBy(memberUsernameGram.memberId)
+                        .having(memberUsernameGram.gram.count().eq((long) keywordGrams.size())))
+                .and(member.username.contains(KEYWORD)));
+    }
+
+    @Benchmark
+    public List<MemberTeamDto> containsLikeScan() {
+        return search(member.username.contains(KEYWORD));
+    }
+
+    private List<MemberTeamDto> search(Predicate where) {
+        return queryFactory
+                .select(new QMemberTeamDto(
+                        member.id.as("memberId"),
+                        member.username,
+                        member.age,
+                        team.id.as("teamId"),
+                        team.name.as("teamName")))
+                .from(member)
+                .leftJoin(member.team, team)
+                .where(where)
+                .fetch();
+    }
+}
@@ -1,5 +1,6 @@
 package com.joonsang.example.QueryDSL;
 
+import com.joonsang.example.QueryDSL.repository.TimeoutAwareJPAQueryFactory;
 import com.querydsl.jpa.impl.JPAQueryFactory;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
@@ -16,6 +17,6 @@ public class QueryDslApplication {
 
 	@Bean
 	JPAQueryFactory jpaQueryFactory(EntityManager entityManager) {
-		return new JPAQueryFactory(entityManager);
+		return new TimeoutAwareJPAQueryFactory(entityManager);
 	}
 }
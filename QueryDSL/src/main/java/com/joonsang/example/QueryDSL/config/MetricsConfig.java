@@ -0,0 +1,39 @@
+package com.joonsang.example.QueryDSL.config;
+
+import com.joonsang.example.QueryDSL.repository.MemberCountCache;
+import com.joonsang.example.QueryDSL.repository.MemberSearchTemplateCache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * 카운트 캐시 적중률
+     */
+    @Bean
+    public MeterBinder memberCountCacheMetrics(MemberCountCache cache) {
+        return registry -> {
+            FunctionCounter.builder("member.count.cache", cache, MemberCountCache::getHitCount).tag("result", "hit").register(registry);
+            FunctionCounter.builder("member.count.cache", cache, MemberCountCache::getMissCount).tag("result", "miss").register(registry);
+            FunctionCounter.builder("member.count.cache", cache, MemberCountCache::getBypassCount).tag("result", "bypass").register(registry);
+            FunctionCounter.builder("member.count.cache.evictions", cache, MemberCountCache::getEvictionCount).register(registry);
+            Gauge.builder("member.count.cache.size", cache, MemberCountCache::size).register(registry);
+        };
+    }
+
+    /**
+     * JPQL 템플릿 캐시 적중률
+     */
+    @Bean
+    public MeterBinder memberSearchTemplateCacheMetrics(MemberSearchTemplateCache cache) {
+        return registry -> {
+            FunctionCounter.builder("member.search.template.cache", cache, MemberSearchTemplateCache::getHitCount).tag("result", "hit").register(registry);
+            FunctionCounter.builder("member.search.template.cache", cache, MemberSearchTemplateCache::getMissCount).tag("result", "miss").register(registry);
+            Gauge.builder("member.search.template.cache.size", cache, MemberSearchTemplateCache::size).register(registry);
+        };
+    }
+}
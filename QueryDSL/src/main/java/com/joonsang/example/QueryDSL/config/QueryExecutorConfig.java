@@ -0,0 +1,36 @@
+package com.joonsang.example.QueryDSL.config;
+
+import com.joonsang.example.QueryDSL.datasource.DataSourceRouting;
+import com.joonsang.example.QueryDSL.datasource.StatementScope;
+import com.joonsang.example.QueryDSL.monitor.SqlStatementRecorder;
+import com.joonsang.example.QueryDSL.repository.QueryTimeouts;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class QueryExecutorConfig {
+
+    /**
+     * 조회 쿼리를 병렬로 실행하기 위한 전용 쓰레드 풀
+     * - 풀과 큐의 크기를 제한해서 커넥션 풀을 고갈시키지 않도록 한다.
+     * - 큐까지 가득 차면 호출한 쓰레드에서 직접 실행 (직렬 실행으로 자연스럽게 후퇴)
+     * - 호출한 쪽의 SQL 통계 구간, DataSource 라우팅 정보, Statement 구간과 쿼리 시간 제한을 작업 쓰레드로 전달
+     */
+    @Bean
+    public ThreadPoolTaskExecutor searchQueryExecutor(@Value("${member.search.executor.pool-size:4}") int poolSize,
+                                                      @Value("${member.search.executor.queue-capacity:50}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("search-query-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setTaskDecorator(runnable -> DataSourceRouting.propagate(SqlStatementRecorder.propagate(
+                StatementScope.propagate(QueryTimeouts.propagate(runnable)))));
+        return executor;
+    }
+}
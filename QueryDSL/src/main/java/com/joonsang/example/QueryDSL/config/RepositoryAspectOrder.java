@@ -0,0 +1,19 @@
+package com.joonsang.example.QueryDSL.config;
+
+/**
+ * *RepositoryImpl 를 감싸는 Aspect 들의 순서 (작을수록 바깥)
+ * - ROUTING     : DataSource 라우팅이 가장 바깥 (아래 구간의 모든 SQL 이 같은 DataSource 로)
+ * - METRICS     : 실행 시간 / 결과(timeout, cancelled 포함), SQL 통계와 시간 제한 적용 시간까지 포함해서 잰다.
+ * - SQL_STATISTICS : 메서드가 실행한 SQL 수
+ * - TIMEOUT     : 시간 제한은 메서드 바로 바깥에서 걸고 푼다.
+ */
+public final class RepositoryAspectOrder {
+
+    public static final int ROUTING = 1;
+    public static final int METRICS = 2;
+    public static final int SQL_STATISTICS = 3;
+    public static final int TIMEOUT = 4;
+
+    private RepositoryAspectOrder() {
+    }
+}
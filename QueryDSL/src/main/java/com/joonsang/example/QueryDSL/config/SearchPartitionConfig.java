@@ -0,0 +1,80 @@
+package com.joonsang.example.QueryDSL.config;
+
+import com.joonsang.example.QueryDSL.datasource.MemberSearchPartitions;
+import com.joonsang.example.QueryDSL.datasource.PartitionKey;
+import com.joonsang.example.QueryDSL.monitor.CountQueryMetrics;
+import com.joonsang.example.QueryDSL.repository.MemberChangeListener;
+import com.joonsang.example.QueryDSL.repository.MemberCountCache;
+import com.joonsang.example.QueryDSL.repository.PartitionedMemberMirror;
+import com.joonsang.example.QueryDSL.repository.PartitionedMemberSearch;
+import com.joonsang.example.QueryDSL.repository.PartitionedMemberStore;
+import com.joonsang.example.QueryDSL.repository.TeamRepository;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 회원 검색 파티션 (app.datasource.search-partitions.enabled = true 일 때만)
+ * - 샤딩이 아니라 scatter-gather 읽기 복제본. 원본 member 테이블이 모든 행을 가진 유일한 쓰기 대상이고,
+ *   파티션은 그 복제본을 나눠 담아 검색 부하(스캔, 정렬)를 여러 DB 로 나눈다. 원본 DB 의 크기는 줄지 않는다.
+ * - app.datasource.search-partitions.urls 의 JDBC URL 마다 커넥션 풀 하나씩 (search-partition-0, search-partition-1, ...)
+ * - 파티션 DataSource 는 빈으로 등록하지 않는다. (spring.datasource / JPA 는 그대로 기존 DataSource 를 사용)
+ * - 쓰기는 모두 기존 member 테이블로, 파티션은 PartitionedMemberMirror 가 커밋 후 복제하는 검색(search / searchPage*) 전용
+ * - 파티션 조회는 searchQueryExecutor 에서 병렬로 실행하므로 pool-size 는 executor pool-size 이상으로
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.search-partitions.enabled", havingValue = "true")
+public class SearchPartitionConfig {
+
+    @Bean
+    public MemberSearchPartitions memberSearchPartitions(@Value("${app.datasource.search-partitions.urls}") String[] urls,
+                                     @Value("${app.datasource.search-partitions.username:sa}") String username,
+                                     @Value("${app.datasource.search-partitions.password:}") String password,
+                                     @Value("${app.datasource.search-partitions.pool-size:5}") int poolSize,
+                                     @Value("${app.datasource.search-partitions.key:TEAM_ID}") PartitionKey partitionKey) {
+        List<DataSource> dataSources = new ArrayList<>();
+        for (int i = 0; i < urls.length; i++) {
+            HikariDataSource dataSource = new HikariDataSource();
+            dataSource.setPoolName("search-partition-" + i);
+            dataSource.setJdbcUrl(urls[i].trim());
+            dataSource.setUsername(username);
+            dataSource.setPassword(password);
+            dataSource.setMaximumPoolSize(poolSize);
+            dataSources.add(dataSource);
+        }
+        return new MemberSearchPartitions(dataSources, partitionKey);
+    }
+
+    @Bean
+    public PartitionedMemberStore partitionedMemberStore(MemberSearchPartitions memberSearchPartitions, MemberChangeListener memberChangeListener) {
+        return new PartitionedMemberStore(memberSearchPartitions, memberChangeListener);
+    }
+
+    @Bean
+    public PartitionedMemberMirror partitionedMemberMirror(EntityManagerFactory entityManagerFactory,
+                                                   JPAQueryFactory jpaQueryFactory,
+                                                   PartitionedMemberStore partitionedMemberStore,
+                                                   @Value("${app.datasource.search-partitions.resync-on-startup:false}") boolean resyncOnStartup,
+                                                   @Value("${app.datasource.search-partitions.resync-chunk-size:10000}") int resyncChunkSize) {
+        return new PartitionedMemberMirror(entityManagerFactory, jpaQueryFactory, partitionedMemberStore, resyncOnStartup, resyncChunkSize);
+    }
+
+    @Bean
+    public PartitionedMemberSearch partitionedMemberSearch(MemberSearchPartitions memberSearchPartitions,
+                                                   TeamRepository teamRepository,
+                                                   @Qualifier("searchQueryExecutor") ThreadPoolTaskExecutor searchQueryExecutor,
+                                                   MemberCountCache memberCountCache,
+                                                   CountQueryMetrics countQueryMetrics) {
+        return new PartitionedMemberSearch(memberSearchPartitions, teamRepository, searchQueryExecutor, memberCountCache, countQueryMetrics);
+    }
+}
@@ -0,0 +1,52 @@
+package com.joonsang.example.QueryDSL.config;
+
+import com.joonsang.example.QueryDSL.datasource.DataSourceRouting;
+import com.joonsang.example.QueryDSL.datasource.StatementScope;
+import com.joonsang.example.QueryDSL.monitor.SqlStatementRecorder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * 검색 API(/v1 ~ /v3, /v5 members)의 Callable 비동기 처리
+ * - 검색은 요청 쓰레드가 아닌 이 풀에서 실행되고, 그 동안 컨테이너가 연결 끊김을 감지하면
+ *   AsyncListener.onError 로 알려준다. (QueryCancellationFilter 가 실행 중인 Statement 를 취소)
+ * - 요청 쓰레드의 Statement 구간, SQL 통계 구간, DataSource 라우팅(X-Read-Consistency)을 작업 쓰레드로 전달
+ * - 풀이 가득 차면 큐에서 기다린다. (DB 커넥션 풀보다 조금 크게)
+ */
+@Configuration
+public class WebAsyncConfig implements WebMvcConfigurer {
+
+    private final int poolSize;
+    private final int queueCapacity;
+    private final long timeoutMillis;
+
+    public WebAsyncConfig(@Value("${member.async.pool-size:16}") int poolSize,
+                          @Value("${member.async.queue-capacity:200}") int queueCapacity,
+                          @Value("${member.async.timeout-ms:30000}") long timeoutMillis) {
+        this.poolSize = poolSize;
+        this.queueCapacity = queueCapacity;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    @Bean
+    public ThreadPoolTaskExecutor memberAsyncExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("member-async-");
+        executor.setTaskDecorator(runnable -> DataSourceRouting.propagate(SqlStatementRecorder.propagate(
+                StatementScope.propagate(runnable))));
+        return executor;
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(memberAsyncExecutor());
+        configurer.setDefaultTimeout(timeoutMillis);
+    }
+}
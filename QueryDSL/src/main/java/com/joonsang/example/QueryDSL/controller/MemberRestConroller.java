@@ -1,15 +1,47 @@
 package com.joonsang.example.QueryDSL.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.joonsang.example.QueryDSL.datasource.QueryCancellationFilter;
+import com.joonsang.example.QueryDSL.datasource.StatementScope;
+import com.joonsang.example.QueryDSL.dto.MemberCursorPage;
+import com.joonsang.example.QueryDSL.dto.MemberLookupRequest;
+import com.joonsang.example.QueryDSL.dto.MemberLookupResult;
 import com.joonsang.example.QueryDSL.dto.MemberSearchCondition;
+import com.joonsang.example.QueryDSL.dto.MemberSlice;
 import com.joonsang.example.QueryDSL.dto.MemberTeamDto;
+import com.joonsang.example.QueryDSL.repository.InvalidPageSizeException;
+import com.joonsang.example.QueryDSL.repository.MemberDataVersion;
 import com.joonsang.example.QueryDSL.repository.MemberRepository;
+import com.joonsang.example.QueryDSL.repository.MemberResponseCache;
+import com.joonsang.example.QueryDSL.repository.MemberSearchAdmission;
+import com.joonsang.example.QueryDSL.repository.MemberSearchCoalescer;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.context.request.WebRequest;
 
+import javax.annotation.PostConstruct;
+import javax.servlet.http.HttpServletResponse;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.stream.Stream;
 
 @RestController
 public class MemberRestConroller {
@@ -17,24 +49,219 @@ public class MemberRestConroller {
     @Autowired
     MemberRepository memberRepository;
 
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @Autowired
+    MemberDataVersion memberDataVersion;
+
+    @Autowired
+    MemberResponseCache memberResponseCache;
+
+    @Autowired
+    MemberSearchCoalescer memberSearchCoalescer;
+
+    @Autowired
+    MemberSearchAdmission memberSearchAdmission;
+
+    @Value("${member.admission.max-rows:10000}")
+    int maxRows;
+
+    @Value("${spring.data.web.pageable.max-page-size:2000}")
+    int maxPageSize;
+
+    @Value("${member.export.fetch-size:500}")
+    int exportFetchSize;
+
+    @Value("${member.export.flush-rows:1000}")
+    int exportFlushRows;
+
+    /**
+     * 내보내기 설정 검증 (잘못된 값이면 요청 처리 도중이 아니라 시작할 때 실패)
+     * - flush-rows 는 나머지 연산에 쓰므로 1 이상, fetch-size 0 은 드라이버 기본값
+     */
+    @PostConstruct
+    public void validateExportSettings() {
+        if (exportFlushRows < 1) {
+            throw new IllegalStateException("member.export.flush-rows 는 1 이상이어야 합니다. value=" + exportFlushRows);
+        }
+        if (exportFetchSize < 0) {
+            throw new IllegalStateException("member.export.fetch-size 는 0 이상이어야 합니다. value=" + exportFetchSize);
+        }
+    }
+
     //== http://localhost:70/v1/members?teamName=teamB&ageGoe=30
+    /**
+     * 조건부 GET
+     * - 데이터 버전이 그대로면(If-None-Match) DB 조회 없이 304 Not Modified (강한 ETag 만, Last-Modified 는 보내지 않음)
+     * - 버전은 조회 전에 읽는다. (조회 도중 커밋된 변경은 다음 요청에서 새 버전으로 다시 조회)
+     * - 페이징이 없으므로 최대 maxRows 건, 넘으면 400 (전체가 필요하면 /v1/members/export 스트리밍)
+     * - /v1 ~ /v3, /v5 검색은 Callable 로 비동기 실행, 조회 도중 클라이언트가 끊으면 Statement 취소 (WebAsyncConfig, QueryCancellationFilter)
+     */
     @GetMapping("/v1/members")
-    public List<MemberTeamDto> searchMemberV1(MemberSearchCondition condition) {
-        return memberRepository.search(condition);
+    public Callable<List<MemberTeamDto>> searchMemberV1(MemberSearchCondition condition, WebRequest webRequest) {
+        MemberDataVersion.Version version = memberDataVersion.current();
+        if (webRequest.checkNotModified(version.getETag())) {
+            return null;
+        }
+        return () -> memberResponseCache.get("v1", condition, Pageable.unpaged(), version,
+                () -> memberSearchCoalescer.execute("v1", condition, Pageable.unpaged(),
+                        () -> memberSearchAdmission.execute(condition, null,
+                                () -> memberRepository.search(condition, maxRows))));
     }
 
     //== http://localhost:70/v2/members?size=5&page=2
+    //== http://localhost:70/v2/members?size=5&page=2&sort=age,desc&sort=username
     @GetMapping("/v2/members")
-    public Page<MemberTeamDto> searchMemberV2(MemberSearchCondition condition, Pageable pageable) {
-        return memberRepository.searchPageSimple(condition, pageable);
+    public Callable<Page<MemberTeamDto>> searchMemberV2(MemberSearchCondition condition, Pageable pageable, WebRequest webRequest) {
+        MemberDataVersion.Version version = memberDataVersion.current();
+        if (webRequest.checkNotModified(version.getETag())) {
+            return null;
+        }
+        return () -> memberResponseCache.get("v2", condition, pageable, version,
+                () -> memberSearchCoalescer.execute("v2", condition, pageable,
+                        () -> memberSearchAdmission.execute(condition, readLimit(pageable), true,
+                                () -> memberRepository.searchPageSimple(condition, pageable))));
     }
 
     //== http://localhost:70/v3/members?size=5&page=2
     //== http://localhost:70/v3/members?size=0&page=20
     //== http://localhost:70/v3/members?size=0&page=200
     @GetMapping("/v3/members")
-    public Page<MemberTeamDto> searchMemberV3(MemberSearchCondition condition, Pageable pageable) {
-        return memberRepository.searchPageComplex(condition, pageable);
+    public Callable<Page<MemberTeamDto>> searchMemberV3(MemberSearchCondition condition, Pageable pageable) {
+        return () -> memberSearchCoalescer.execute("v3", condition, pageable,
+                () -> memberSearchAdmission.execute(condition, readLimit(pageable), true,
+                        () -> memberRepository.searchPageComplex(condition, pageable)));
+    }
+
+    //== http://localhost:70/v4/members?size=5
+    //== http://localhost:70/v4/members?size=5&cursor={nextCursor}
+    /**
+     * 커서 페이징
+     * - size 는 Pageable 과 같은 최대 페이지 크기(spring.data.web.pageable.max-page-size)로 줄이고, 1 미만이면 400
+     * - 읽는 행 수(size)로 검색 허용 여부를 판단 (MemberSearchAdmission)
+     */
+    @GetMapping("/v4/members")
+    public MemberCursorPage searchMemberV4(MemberSearchCondition condition,
+                                           @RequestParam(required = false) String cursor,
+                                           @RequestParam(defaultValue = "20") int size) {
+        if (size < 1) {
+            throw new InvalidPageSizeException(size);
+        }
+        int pageSize = Math.min(size, maxPageSize);
+        return memberSearchAdmission.execute(condition, (long) pageSize,
+                () -> memberRepository.searchByCursor(condition, cursor, pageSize));
+    }
+
+    //== http://localhost:70/v5/members?size=20&page=3
+    //== http://localhost:70/v5/members?size=20&page=3&estimate=true
+    /**
+     * Slice 페이징 (전체 카운트 없음)
+     * - 다음 페이지 여부를 위해 size + 1 건을 읽으므로, 읽는 행 수는 offset + size + 1 로 검색 허용 여부를 판단 (MemberSearchAdmission)
+     * - /v1 ~ /v3 처럼 Callable 로 비동기 실행 (쿼리 시간 제한, 클라이언트가 끊으면 Statement 취소)
+     */
+    @GetMapping("/v5/members")
+    public Callable<MemberSlice> searchMemberV5(MemberSearchCondition condition, Pageable pageable,
+                                                @RequestParam(defaultValue = "false") boolean estimate) {
+        Long limit = readLimit(pageable);
+        return () -> memberSearchAdmission.execute(condition, limit == null ? null : limit + 1, () -> {
+            Slice<MemberTeamDto> slice = memberRepository.searchSlice(condition, pageable);
+            return new MemberSlice(slice.getContent(), slice.getNumber(), slice.getSize(), slice.hasNext(),
+                    estimate ? memberRepository.estimateCount(condition) : null);
+        });
     }
 
+    //== POST http://localhost:70/v1/members/lookup  {"ids": [1, 2, 3]}
+    //== POST http://localhost:70/v1/members/lookup  {"usernames": ["member1", "member2"]}
+    @PostMapping("/v1/members/lookup")
+    public List<MemberLookupResult> lookupMemberV1(@RequestBody MemberLookupRequest request) {
+        if ((request.getIds() == null) == (request.getUsernames() == null)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "ids 또는 usernames 중 하나만 지정해야 합니다.");
+        }
+
+        List<?> keys = request.getIds() != null ? request.getIds() : request.getUsernames();
+        List<MemberTeamDto> members = request.getIds() != null
+                ? memberRepository.lookupByIds(request.getIds())
+                : memberRepository.lookupByUsernames(request.getUsernames());
+
+        List<MemberLookupResult> result = new ArrayList<>(keys.size());
+        for (int i = 0; i < keys.size(); i++) {
+            result.add(new MemberLookupResult(keys.get(i), members.get(i)));
+        }
+        return result;
+    }
+
+    //== http://localhost:70/v1/members/export?teamName=teamB
+    //== http://localhost:70/v1/members/export?format=csv
+    /**
+     * 검색 결과 내보내기 (NDJSON / CSV)
+     * - 결과 전체를 메모리에 올리지 않고, 스트리밍 조회 결과를 한 줄씩 바로 응답에 쓴다.
+     * - 스트림이 열려있는 동안 커넥션을 사용하므로 읽기 전용 트랜잭션으로 감싼다.
+     * - 클라이언트가 연결을 끊으면 조회 Statement 를 취소한다. (QueryCancellationFilter)
+     */
+    @GetMapping("/v1/members/export")
+    @Transactional(readOnly = true)
+    public void exportMemberV1(MemberSearchCondition condition,
+                               @RequestParam(defaultValue = "ndjson") String format,
+                               HttpServletResponse response) throws IOException {
+        boolean csv = "csv".equalsIgnoreCase(format);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setContentType(csv ? "text/csv" : "application/x-ndjson");
+        response.setHeader("Content-Disposition", "attachment; filename=members." + (csv ? "csv" : "ndjson"));
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(response.getOutputStream(), StandardCharsets.UTF_8));
+        if (csv) {
+            writer.write("memberId,username,age,teamId,teamName\n");
+        }
+
+        try (Stream<MemberTeamDto> stream = memberRepository.searchStream(condition, exportFetchSize)) {
+            Iterator<MemberTeamDto> iterator = stream.iterator();
+            long rows = 0;
+            try {
+                while (iterator.hasNext()) {
+                    MemberTeamDto dto = iterator.next();
+                    writer.write(csv ? toCsvLine(dto) : objectMapper.writeValueAsString(dto));
+                    writer.write('\n');
+
+                    // 일정 건수마다 클라이언트로 밀어낸다 (chunked)
+                    if (++rows % exportFlushRows == 0) {
+                        writer.flush();
+                    }
+                }
+            } catch (IOException e) {
+                // 클라이언트가 끊었으면 스트림을 닫기 전에 실행 중인 조회부터 취소 (남은 결과를 끝까지 읽지 않도록)
+                StatementScope scope = StatementScope.current();
+                if (scope != null && QueryCancellationFilter.isClientAbort(e)) {
+                    scope.cancel();
+                }
+                throw e;
+            }
+        }
+        writer.flush();
+    }
+
+    /**
+     * 페이지 조회가 읽는 최대 행 수 (비용 추정용)
+     */
+    private static Long readLimit(Pageable pageable) {
+        return pageable.isPaged() ? pageable.getOffset() + pageable.getPageSize() : null;
+    }
+
+    private String toCsvLine(MemberTeamDto dto) {
+        return dto.getMemberId() + ","
+                + csvValue(dto.getUsername()) + ","
+                + dto.getAge() + ","
+                + (dto.getTeamId() == null ? "" : dto.getTeamId()) + ","
+                + csvValue(dto.getTeamName());
+    }
+
+    private String csvValue(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.contains(",") || value.contains("\"") || value.contains("\n")) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+        return value;
+    }
 }
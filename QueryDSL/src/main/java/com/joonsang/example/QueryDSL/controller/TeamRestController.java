@@ -0,0 +1,31 @@
+package com.joonsang.example.QueryDSL.controller;
+
+import com.joonsang.example.QueryDSL.dto.TeamMembersDto;
+import com.joonsang.example.QueryDSL.dto.TeamStatisticsDto;
+import com.joonsang.example.QueryDSL.repository.TeamRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+public class TeamRestController {
+
+    @Autowired
+    TeamRepository teamRepository;
+
+    //== http://localhost:70/v1/teams?size=10&page=0
+    @GetMapping("/v1/teams")
+    public Page<TeamMembersDto> searchTeamV1(Pageable pageable) {
+        return teamRepository.searchTeamsWithMembers(pageable);
+    }
+
+    //== http://localhost:70/v1/teams/statistics
+    @GetMapping("/v1/teams/statistics")
+    public List<TeamStatisticsDto> teamStatisticsV1() {
+        return teamRepository.findTeamStatistics();
+    }
+}
@@ -0,0 +1,105 @@
+package com.joonsang.example.QueryDSL.datasource;
+
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.function.Supplier;
+
+/**
+ * 현재 쓰레드의 DataSource 라우팅 정보
+ * - 검색(읽기)은 ReplicaReadAspect 가 REPLICA 로 표시하고, 그 외에는 모두 PRIMARY
+ * - 읽기 전용 트랜잭션(@Transactional(readOnly = true)) 도 REPLICA
+ * - forcePrimary 가 걸려 있으면 무조건 PRIMARY (방금 쓴 데이터를 다시 읽어야 하는 경우)
+ */
+public final class DataSourceRouting {
+
+    private static final ThreadLocal<DataSourceType> ROUTE = new ThreadLocal<>();
+    private static final ThreadLocal<Boolean> FORCE_PRIMARY = new ThreadLocal<>();
+
+    private DataSourceRouting() {
+    }
+
+    public static DataSourceType current() {
+        if (isForcePrimary()) {
+            return DataSourceType.PRIMARY;
+        }
+        if (ROUTE.get() == DataSourceType.REPLICA) {
+            return DataSourceType.REPLICA;
+        }
+        if (TransactionSynchronizationManager.isActualTransactionActive()
+                && TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return DataSourceType.REPLICA;
+        }
+        return DataSourceType.PRIMARY;
+    }
+
+    public static boolean isForcePrimary() {
+        return Boolean.TRUE.equals(FORCE_PRIMARY.get());
+    }
+
+    /**
+     * 읽기 구간 시작, 이전 값을 반환 (restore 로 되돌린다)
+     */
+    static DataSourceType markReplica() {
+        DataSourceType previous = ROUTE.get();
+        ROUTE.set(DataSourceType.REPLICA);
+        return previous;
+    }
+
+    static void restore(DataSourceType previous) {
+        set(ROUTE, previous);
+    }
+
+    /**
+     * supplier 안의 모든 조회를 PRIMARY 로 실행 (read-after-write)
+     */
+    public static <T> T primary(Supplier<T> supplier) {
+        Boolean previous = markForcePrimary();
+        try {
+            return supplier.get();
+        } finally {
+            restoreForcePrimary(previous);
+        }
+    }
+
+    static Boolean markForcePrimary() {
+        Boolean previous = FORCE_PRIMARY.get();
+        FORCE_PRIMARY.set(Boolean.TRUE);
+        return previous;
+    }
+
+    static void restoreForcePrimary(Boolean previous) {
+        set(FORCE_PRIMARY, previous);
+    }
+
+    /**
+     * 다른 쓰레드(searchQueryExecutor)에서 실행되는 카운트 쿼리도 호출한 쪽과 같은 DataSource 를 쓰도록 전달
+     */
+    public static Runnable propagate(Runnable runnable) {
+        DataSourceType route = ROUTE.get();
+        Boolean forcePrimary = FORCE_PRIMARY.get();
+        if (route == null && forcePrimary == null) {
+            return runnable;
+        }
+
+        return () -> {
+            DataSourceType previousRoute = ROUTE.get();
+            Boolean previousForcePrimary = FORCE_PRIMARY.get();
+            set(ROUTE, route);
+            set(FORCE_PRIMARY, forcePrimary);
+            try {
+                runnable.run();
+            } finally {
+                set(ROUTE, previousRoute);
+                set(FORCE_PRIMARY, previousForcePrimary);
+            }
+        };
+    }
+
+    private static <T> void set(ThreadLocal<T> threadLocal, T value) {
+        if (value == null) {
+            threadLocal.remove();
+        } else {
+            threadLocal.set(value);
+        }
+    }
+}
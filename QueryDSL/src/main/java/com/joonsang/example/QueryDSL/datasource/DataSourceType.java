@@ -0,0 +1,5 @@
+package com.joonsang.example.QueryDSL.datasource;
+
+public enum DataSourceType {
+    PRIMARY, REPLICA
+}
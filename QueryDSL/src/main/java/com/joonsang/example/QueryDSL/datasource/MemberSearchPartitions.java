@@ -0,0 +1,142 @@
+package com.joonsang.example.QueryDSL.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * 회원 파티션 DataSource 목록과 파티션 선택 (app.datasource.search-partitions.enabled = true 일 때만, SearchPartitionConfig)
+ * - 파티션마다 member 테이블(member_id, username, age, team_id)만 둔다. 팀은 기존 DataSource(team 테이블, 2차 캐시)에서 조회
+ * - 회원명 contains 검색용 3-gram 색인(member_username_gram)도 회원과 같은 파티션에 둔다.
+ * - 시작 시 파티션마다 테이블 / 인덱스가 없으면 만든다. (인덱스는 Member, MemberUsernameGram 엔티티와 같은 구성)
+ * - 파티션 Statement 도 요청의 StatementScope 에 등록된다. (StatementTrackingDataSourceDecorator, 연결 끊김 / 마감 시 취소)
+ */
+@Slf4j
+public class MemberSearchPartitions implements DisposableBean {
+
+    private static final String[] SCHEMA = {
+            "create table if not exists member ("
+                    + " member_id bigint not null primary key,"
+                    + " username varchar(255),"
+                    + " age integer not null,"
+                    + " team_id bigint)",
+            "create index if not exists idx_member_username on member (username, member_id)",
+            "create index if not exists idx_member_team_age on member (team_id, age)",
+            "create index if not exists idx_member_age on member (age, member_id)",
+            "create table if not exists member_username_gram ("
+                    + " member_id bigint not null,"
+                    + " gram varchar(3) not null,"
+                    + " primary key (member_id, gram))",
+            "create index if not exists idx_member_username_gram on member_username_gram (gram, member_id)"
+    };
+
+    private final List<DataSource> dataSources;
+    private final List<NamedParameterJdbcTemplate> templates;
+    private final PartitionKey partitionKey;
+
+    public MemberSearchPartitions(List<DataSource> dataSources, PartitionKey partitionKey) {
+        if (dataSources.isEmpty()) {
+            throw new IllegalArgumentException("파티션 DataSource 가 없습니다.");
+        }
+
+        StatementTrackingDataSourceDecorator tracking = new StatementTrackingDataSourceDecorator();
+        this.dataSources = new ArrayList<>(dataSources);
+        this.templates = IntStream.range(0, dataSources.size())
+                .mapToObj(i -> new NamedParameterJdbcTemplate(tracking.decorate("searchPartition" + i, dataSources.get(i))))
+                .collect(Collectors.toList());
+        this.partitionKey = partitionKey;
+
+        for (NamedParameterJdbcTemplate template : templates) {
+            for (String ddl : SCHEMA) {
+                template.getJdbcTemplate().execute(ddl);
+            }
+            warnIfGramsMissing(template);
+        }
+        log.info("member partitions: {} ({})", dataSources.size(), partitionKey);
+    }
+
+    /**
+     * gram 색인 이전에 복제된 파티션이면 contains 검색에서 회원이 빠지므로 재동기화가 필요 (resync-on-startup)
+     */
+    private static void warnIfGramsMissing(NamedParameterJdbcTemplate template) {
+        Long members = template.getJdbcTemplate().queryForObject("select count(*) from member", Long.class);
+        Long grams = template.getJdbcTemplate().queryForObject("select count(*) from member_username_gram", Long.class);
+        if (members != null && members > 0 && grams != null && grams == 0) {
+            log.warn("member partition has {} members but no username grams, resync required", members);
+        }
+    }
+
+    public int size() {
+        return templates.size();
+    }
+
+    public PartitionKey getPartitionKey() {
+        return partitionKey;
+    }
+
+    public NamedParameterJdbcTemplate jdbc(int partition) {
+        return templates.get(partition);
+    }
+
+    /**
+     * 쿼리 시간 제한을 건 템플릿 (QueryTimeouts.currentMillis)
+     *
+     * @param timeoutMillis null 이면 제한 없음 (공유 템플릿)
+     */
+    public NamedParameterJdbcTemplate jdbc(int partition, Integer timeoutMillis) {
+        if (timeoutMillis == null) {
+            return jdbc(partition);
+        }
+
+        JdbcTemplate template = new JdbcTemplate(templates.get(partition).getJdbcTemplate().getDataSource());
+        template.setQueryTimeout(Math.max(1, timeoutMillis / 1000));
+        return new NamedParameterJdbcTemplate(template);
+    }
+
+    /**
+     * 회원 한 건이 저장될 파티션
+     */
+    public int partitionOf(Long memberId, Long teamId) {
+        if (partitionKey == PartitionKey.MEMBER_ID) {
+            return Math.floorMod(Long.hashCode(memberId), size());
+        }
+        return teamId == null ? 0 : (int) Math.floorMod(teamId, (long) size());
+    }
+
+    /**
+     * 검색할 파티션 목록
+     *
+     * @param teamIds 팀명 조건이 없으면 null
+     */
+    public List<Integer> partitionsFor(List<Long> teamIds) {
+        if (teamIds == null || partitionKey != PartitionKey.TEAM_ID) {
+            return IntStream.range(0, size()).boxed().collect(Collectors.toList());
+        }
+
+        TreeSet<Integer> partitions = new TreeSet<>();
+        for (Long teamId : teamIds) {
+            partitions.add(partitionOf(null, teamId));
+        }
+        return Collections.unmodifiableList(new ArrayList<>(partitions));
+    }
+
+    @Override
+    public void destroy() throws IOException {
+        for (DataSource dataSource : dataSources) {
+            if (dataSource instanceof Closeable) {
+                ((Closeable) dataSource).close();
+            }
+        }
+    }
+}
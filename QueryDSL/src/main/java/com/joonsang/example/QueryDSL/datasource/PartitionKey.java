@@ -0,0 +1,11 @@
+package com.joonsang.example.QueryDSL.datasource;
+
+/**
+ * 회원을 파티션으로 나누는 기준
+ * - TEAM_ID   : team_id % N (팀이 없으면 0번 파티션), 팀명 조건이 있으면 해당 팀의 파티션만 조회
+ * - MEMBER_ID : member_id 해시 % N, 데이터는 고르게 퍼지지만 검색은 항상 모든 파티션을 조회
+ */
+public enum PartitionKey {
+    TEAM_ID,
+    MEMBER_ID
+}
@@ -0,0 +1,123 @@
+package com.joonsang.example.QueryDSL.datasource;
+
+import com.joonsang.example.QueryDSL.repository.QueryTimeoutPolicy;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * 요청 단위 Statement 구간 (StatementScope)
+ * - 요청 URI 별 시간 제한(member.query-timeout.endpoints)을 요청 마감 시각으로 건다. 쿼리 힌트는 남은 시간 이하로 붙는다.
+ * - 비동기 요청(/v1 ~ /v3, /v5 members, Callable)은 조회 도중 컨테이너가 연결 끊김(AsyncListener.onError)이나
+ *   비동기 시간 초과(onTimeout)를 알려주면, 아직 실행 중인 Statement(카운트 쿼리 등 다른 쓰레드 포함)를 취소
+ * - 동기 요청은 응답을 쓸 때만 연결이 끊긴 걸 알 수 있다. 응답을 쓰면서 조회하는 스트리밍 내보내기에만 의미가 있다.
+ * - repository.query.interrupted{reason=cancelled} : 취소한 Statement 수
+ */
+@Slf4j
+@Component
+public class QueryCancellationFilter extends OncePerRequestFilter {
+
+    private final QueryTimeoutPolicy policy;
+    private final Counter cancelled;
+
+    public QueryCancellationFilter(QueryTimeoutPolicy policy, MeterRegistry registry) {
+        this.policy = policy;
+        this.cancelled = Counter.builder("repository.query.interrupted")
+                .description("시간 제한 초과 / 취소된 쿼리")
+                .tag("reason", "cancelled")
+                .register(registry);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        StatementScope previous = StatementScope.begin(policy.endpointTimeoutMillis(request.getRequestURI()));
+        StatementScope scope = StatementScope.current();
+        try {
+            filterChain.doFilter(request, response);
+        } catch (IOException | ServletException | RuntimeException e) {
+            if (isClientAbort(e)) {
+                cancel(request, scope, "client aborted");
+            }
+            throw e;
+        } finally {
+            StatementScope.end(previous);
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new CancellingAsyncListener(request, scope));
+            } else {
+                recordCancelled(scope);
+            }
+        }
+    }
+
+    private void cancel(HttpServletRequest request, StatementScope scope, String reason) {
+        int count = scope.cancel();
+        log.info("{} {} {}, {} statements cancelled", reason, request.getMethod(), request.getRequestURI(), count);
+    }
+
+    private void recordCancelled(StatementScope scope) {
+        if (scope.getCancelledCount() > 0) {
+            cancelled.increment(scope.getCancelledCount());
+        }
+    }
+
+    /**
+     * 비동기 처리 중 연결 끊김 / 시간 초과면 취소, 끝나면 취소 수 기록
+     */
+    private class CancellingAsyncListener implements AsyncListener {
+
+        private final HttpServletRequest request;
+        private final StatementScope scope;
+
+        private CancellingAsyncListener(HttpServletRequest request, StatementScope scope) {
+            this.request = request;
+            this.scope = scope;
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            cancel(request, scope, "client aborted");
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            cancel(request, scope, "async timeout");
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            recordCancelled(scope);
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+
+    /**
+     * 클라이언트가 연결을 끊어서 난 예외인지 (Tomcat ClientAbortException, Broken pipe, Connection reset)
+     */
+    public static boolean isClientAbort(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if ("ClientAbortException".equals(cause.getClass().getSimpleName())) {
+                return true;
+            }
+            String message = cause.getMessage();
+            if (cause instanceof IOException && message != null
+                    && (message.contains("Broken pipe") || message.contains("Connection reset"))) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,34 @@
+package com.joonsang.example.QueryDSL.datasource;
+
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * 요청 헤더로 읽기 일관성 선택
+ * - X-Read-Consistency: primary 이면 요청 전체를 primary 에서 조회 (쓰기 직후 replica 지연을 피해야 하는 화면)
+ */
+public class ReadConsistencyFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "X-Read-Consistency";
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (!"primary".equalsIgnoreCase(request.getHeader(HEADER))) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        Boolean previous = DataSourceRouting.markForcePrimary();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            DataSourceRouting.restoreForcePrimary(previous);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.joonsang.example.QueryDSL.datasource;
+
+import com.joonsang.example.QueryDSL.config.RepositoryAspectOrder;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.annotation.Order;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 레포지토리 조회 메서드(search*, lookup*) 는 replica 에서 실행
+ * - 카운트 쿼리 포함. (searchQueryExecutor 의 TaskDecorator 가 라우팅 정보를 전달)
+ * - 쓰기 트랜잭션 안에서 호출되면 방금 쓴 데이터를 봐야 하므로 primary 그대로 사용
+ */
+@Aspect
+@Order(RepositoryAspectOrder.ROUTING)
+public class ReplicaReadAspect {
+
+    @Around("execution(* com.joonsang.example.QueryDSL.repository.*RepositoryImpl.search*(..))"
+            + " || execution(* com.joonsang.example.QueryDSL.repository.*RepositoryImpl.lookup*(..))")
+    public Object routeToReplica(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return joinPoint.proceed();
+        }
+
+        DataSourceType previous = DataSourceRouting.markReplica();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            DataSourceRouting.restore(previous);
+        }
+    }
+}
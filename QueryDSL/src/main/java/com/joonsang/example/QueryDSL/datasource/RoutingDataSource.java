@@ -0,0 +1,15 @@
+package com.joonsang.example.QueryDSL.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+/**
+ * 커넥션을 얻는 시점의 DataSourceRouting 값으로 primary / replica 선택
+ * - LazyConnectionDataSourceProxy 로 감싸서, 트랜잭션 시작이 아니라 첫 SQL 실행 시점에 결정되도록 한다.
+ */
+public class RoutingDataSource extends AbstractRoutingDataSource {
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return DataSourceRouting.current();
+    }
+}
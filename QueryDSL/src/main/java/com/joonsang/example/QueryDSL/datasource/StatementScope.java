@@ -0,0 +1,168 @@
+package com.joonsang.example.QueryDSL.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * HTTP 요청 하나에서 열린 JDBC Statement 목록과 요청 마감 시각
+ * - StatementTrackingDataSourceDecorator 가 Statement 를 만들 때 등록하고, close 할 때 뺀다.
+ * - cancel() 은 다른 쓰레드에서 호출해도 되고, 아직 열려 있는 Statement 를 모두 Statement.cancel() 한다.
+ * - searchQueryExecutor 에서 실행되는 카운트 쿼리도 같은 구간에 등록되도록 propagate() 로 전달
+ * - 하위 구간(child)은 병렬 쿼리 하나만 따로 취소하기 위한 것. 등록한 Statement 는 상위 구간에도 등록된다.
+ */
+@Slf4j
+public final class StatementScope {
+
+    private static final ThreadLocal<StatementScope> CURRENT = new ThreadLocal<>();
+
+    private final Set<Statement> statements = ConcurrentHashMap.newKeySet();
+    private final StatementScope parent;
+    private final long deadline;
+    private final AtomicInteger cancelledCount = new AtomicInteger();
+    private volatile boolean cancelled;
+
+    private StatementScope(StatementScope parent, long deadline) {
+        this.parent = parent;
+        this.deadline = deadline;
+    }
+
+    public static StatementScope current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * 구간 시작, 이전 구간을 반환 (end 로 되돌린다)
+     *
+     * @param timeoutMillis 요청 전체의 시간 제한, 0 이하면 제한 없음
+     */
+    public static StatementScope begin(long timeoutMillis) {
+        StatementScope previous = CURRENT.get();
+        CURRENT.set(new StatementScope(null, timeoutMillis > 0 ? System.currentTimeMillis() + timeoutMillis : 0));
+        return previous;
+    }
+
+    public static void end(StatementScope previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+
+    public static Runnable propagate(Runnable runnable) {
+        StatementScope scope = CURRENT.get();
+        if (scope == null) {
+            return runnable;
+        }
+
+        return () -> {
+            StatementScope previous = CURRENT.get();
+            CURRENT.set(scope);
+            try {
+                runnable.run();
+            } finally {
+                end(previous);
+            }
+        };
+    }
+
+    /**
+     * 하위 구간
+     * - 마감 시각은 상위 구간과 같고, 상위 구간이 취소되면 하위 구간의 Statement 도 취소된다.
+     * - 하위 구간을 cancel() 해도 상위 구간의 다른 Statement 는 그대로
+     *
+     * @param parent 상위 구간, 없으면(요청 밖) 마감 시각 없는 독립 구간
+     */
+    public static StatementScope child(StatementScope parent) {
+        return new StatementScope(parent, parent == null ? 0 : parent.deadline);
+    }
+
+    /**
+     * 이 구간을 현재 구간으로 해서 실행 (이미 취소되었으면 실행하지 않고 CancellationException)
+     */
+    public <T> Callable<T> wrap(Callable<T> callable) {
+        return () -> {
+            if (isCancelled()) {
+                throw new CancellationException("statement scope cancelled");
+            }
+
+            StatementScope previous = CURRENT.get();
+            CURRENT.set(this);
+            try {
+                return callable.call();
+            } finally {
+                end(previous);
+            }
+        };
+    }
+
+    /**
+     * @return 요청 마감까지 남은 시간(ms), 제한이 없으면 null
+     */
+    public Long remainingMillis() {
+        return deadline == 0 ? null : deadline - System.currentTimeMillis();
+    }
+
+    /**
+     * @return 취소한 Statement 수
+     */
+    public int cancel() {
+        cancelled = true;
+        int count = 0;
+        for (Statement statement : statements) {
+            try {
+                statement.cancel();
+                cancelledCount.incrementAndGet();
+                count++;
+            } catch (SQLException e) {
+                log.debug("statement cancel failed", e);
+            }
+        }
+        return count;
+    }
+
+    public boolean isCancelled() {
+        return cancelled || (parent != null && parent.isCancelled());
+    }
+
+    /**
+     * @return 이 구간에서 지금까지 취소한 Statement 수
+     */
+    public int getCancelledCount() {
+        return cancelledCount.get();
+    }
+
+    public int runningCount() {
+        return statements.size();
+    }
+
+    void register(Statement statement) {
+        statements.add(statement);
+        if (parent != null) {
+            parent.register(statement);
+        }
+
+        // 취소 직후에 만들어진 Statement
+        if (cancelled) {
+            try {
+                statement.cancel();
+            } catch (SQLException e) {
+                log.debug("statement cancel failed", e);
+            }
+        }
+    }
+
+    void unregister(Statement statement) {
+        statements.remove(statement);
+        if (parent != null) {
+            parent.unregister(statement);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.joonsang.example.QueryDSL.datasource;
+
+import com.github.gavlyukovskiy.boot.jdbc.decorator.DataSourceDecorator;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * 현재 StatementScope 에 JDBC Statement 를 등록하는 DataSource 데코레이터 (datasource-decorator)
+ * - Connection 이 만든 Statement 를 만든 쓰레드의 StatementScope 에 등록하고, close 할 때 뺀다.
+ * - 구간이 없으면(요청 밖, 배치 등) 아무것도 등록하지 않는다.
+ * - decorator.datasource.exclude-beans 에 따라 p6spy 와 같은 DataSource 만 감싼다.
+ */
+@Component
+public class StatementTrackingDataSourceDecorator implements DataSourceDecorator {
+
+    @Override
+    public DataSource decorate(String beanName, DataSource dataSource) {
+        return new DelegatingDataSource(dataSource) {
+            @Override
+            public Connection getConnection() throws SQLException {
+                return wrap(super.getConnection());
+            }
+
+            @Override
+            public Connection getConnection(String username, String password) throws SQLException {
+                return wrap(super.getConnection(username, password));
+            }
+        };
+    }
+
+    /**
+     * p6spy 보다 먼저(안쪽에) 감싼다. Hibernate 는 p6spy 래퍼만 보게 된다.
+     */
+    @Override
+    public int getOrder() {
+        return 0;
+    }
+
+    private static Connection wrap(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, new ConnectionHandler(connection));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    private static class ConnectionHandler implements InvocationHandler {
+        private final Connection target;
+
+        private ConnectionHandler(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "createStatement":
+                case "prepareStatement":
+                case "prepareCall":
+                    Object statement = StatementTrackingDataSourceDecorator.invoke(target, method, args);
+                    StatementScope scope = StatementScope.current();
+                    return scope == null ? statement : track((Statement) statement, method.getReturnType(), scope);
+                default:
+                    return StatementTrackingDataSourceDecorator.invoke(target, method, args);
+            }
+        }
+
+        private static Object track(Statement statement, Class<?> type, StatementScope scope) {
+            Class<?> statementType = type == CallableStatement.class ? CallableStatement.class
+                    : type == PreparedStatement.class ? PreparedStatement.class
+                    : Statement.class;
+            scope.register(statement);
+            return Proxy.newProxyInstance(Statement.class.getClassLoader(),
+                    new Class<?>[]{statementType}, new StatementHandler(statement, scope));
+        }
+    }
+
+    private static class StatementHandler implements InvocationHandler {
+        private final Statement target;
+        private final StatementScope scope;
+
+        private StatementHandler(Statement target, StatementScope scope) {
+            this.target = target;
+            this.scope = scope;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "close":
+                    scope.unregister(target);
+                    return StatementTrackingDataSourceDecorator.invoke(target, method, args);
+                default:
+                    return StatementTrackingDataSourceDecorator.invoke(target, method, args);
+            }
+        }
+    }
+}
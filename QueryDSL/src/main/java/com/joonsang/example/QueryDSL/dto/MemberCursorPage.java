@@ -0,0 +1,22 @@
+package com.joonsang.example.QueryDSL.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 커서(Keyset) 기반 페이징 결과
+ * - nextCursor 는 마지막 회원의 member_id 를 담은 불투명 토큰, 다음 요청에 그대로 넘기면 된다.
+ */
+@Data
+public class MemberCursorPage {
+    private List<MemberTeamDto> content;
+    private String nextCursor;
+    private boolean hasNext;
+
+    public MemberCursorPage(List<MemberTeamDto> content, String nextCursor, boolean hasNext) {
+        this.content = content;
+        this.nextCursor = nextCursor;
+        this.hasNext = hasNext;
+    }
+}
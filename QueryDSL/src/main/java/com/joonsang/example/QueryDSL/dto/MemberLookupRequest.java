@@ -0,0 +1,14 @@
+package com.joonsang.example.QueryDSL.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 일괄 조회 요청 - ids 또는 usernames 중 하나
+ */
+@Data
+public class MemberLookupRequest {
+    private List<Long> ids;
+    private List<String> usernames;
+}
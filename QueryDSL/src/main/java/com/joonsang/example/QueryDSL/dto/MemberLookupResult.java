@@ -0,0 +1,19 @@
+package com.joonsang.example.QueryDSL.dto;
+
+import lombok.Data;
+
+/**
+ * 일괄 조회 결과 한 건 - 요청한 키 순서 그대로, 없는 키는 found = false
+ */
+@Data
+public class MemberLookupResult {
+    private Object key;
+    private boolean found;
+    private MemberTeamDto member;
+
+    public MemberLookupResult(Object key, MemberTeamDto member) {
+        this.key = key;
+        this.found = member != null;
+        this.member = member;
+    }
+}
@@ -4,8 +4,10 @@ import lombok.Data;
 
 @Data
 public class MemberSearchCondition {
-    private String username;    // 회원명
-    private String teamName;    // 팀명
-    private Integer ageGoe;     // 나이
-    private Integer ageLoe;     // 나이
+    private String username;            // 회원명
+    private String usernamePrefix;      // 회원명 시작 문자열
+    private String usernameContains;    // 회원명 포함 문자열
+    private String teamName;            // 팀명
+    private Integer ageGoe;             // 나이
+    private Integer ageLoe;             // 나이
 }
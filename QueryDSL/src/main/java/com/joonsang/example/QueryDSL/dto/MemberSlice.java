@@ -0,0 +1,26 @@
+package com.joonsang.example.QueryDSL.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Slice 페이징 결과 (전체 카운트 없음)
+ * - estimatedTotal 은 요청한 경우에만, 테이블 통계 등에서 얻은 대략적인 값 (모르면 null)
+ */
+@Data
+public class MemberSlice {
+    private List<MemberTeamDto> content;
+    private int page;
+    private int size;
+    private boolean hasNext;
+    private Long estimatedTotal;
+
+    public MemberSlice(List<MemberTeamDto> content, int page, int size, boolean hasNext, Long estimatedTotal) {
+        this.content = content;
+        this.page = page;
+        this.size = size;
+        this.hasNext = hasNext;
+        this.estimatedTotal = estimatedTotal;
+    }
+}
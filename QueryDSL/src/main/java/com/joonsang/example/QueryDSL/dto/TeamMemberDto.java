@@ -0,0 +1,20 @@
+package com.joonsang.example.QueryDSL.dto;
+
+import com.querydsl.core.annotations.QueryProjection;
+import lombok.Data;
+
+@Data
+public class TeamMemberDto {
+    private Long memberId;
+    private String username;
+    private int age;
+    private Long teamId;
+
+    @QueryProjection
+    public TeamMemberDto(Long memberId, String username, int age, Long teamId) {
+        this.memberId = memberId;
+        this.username = username;
+        this.age = age;
+        this.teamId = teamId;
+    }
+}
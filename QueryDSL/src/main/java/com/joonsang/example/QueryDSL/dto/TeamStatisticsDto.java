@@ -0,0 +1,24 @@
+package com.joonsang.example.QueryDSL.dto;
+
+import lombok.Data;
+
+@Data
+public class TeamStatisticsDto {
+    private Long teamId;
+    private String teamName;
+    private long count;      // 회원 수
+    private long sum;        // 나이 합
+    private double avg;      // 나이 평균
+    private int max;         // 나이 최대
+    private int min;         // 나이 최소
+
+    public TeamStatisticsDto(Long teamId, String teamName, long count, long sum, double avg, int max, int min) {
+        this.teamId = teamId;
+        this.teamName = teamName;
+        this.count = count;
+        this.sum = sum;
+        this.avg = avg;
+        this.max = max;
+        this.min = min;
+    }
+}
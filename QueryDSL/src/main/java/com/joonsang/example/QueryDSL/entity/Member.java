@@ -6,11 +6,22 @@ import lombok.ToString;
 import javax.persistence.*;
 
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_member_username", columnList = "username, member_id"),   // usernameEq/usernamePrefix + sort=username
+        @Index(name = "idx_member_team_age", columnList = "team_id, age"),          // teamName(-> team_id) + ageGoe/ageLoe
+        @Index(name = "idx_member_age", columnList = "age, member_id")               // sort=age
+})
 @Getter
 @ToString(of = {"id", "username", "age"})
 public class Member {
 
-    @Id @GeneratedValue
+    /**
+     * 시퀀스 + pooled 옵티마이저
+     * - allocationSize 만큼 ID 를 미리 할당받아, INSERT 마다 시퀀스를 조회하지 않고 JDBC batch 가 가능하다.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "member_seq_generator")
+    @SequenceGenerator(name = "member_seq_generator", sequenceName = "member_seq", allocationSize = 50)
     @Column(name = "member_id")
     private Long id;
 
@@ -56,4 +67,8 @@ public class Member {
     public void setUsername(String username) {
         this.username = username;
     }
+
+    public void changeAge(int age) {
+        this.age = age;
+    }
 }
@@ -0,0 +1,48 @@
+package com.joonsang.example.QueryDSL.entity;
+
+import lombok.AccessLevel;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import javax.persistence.*;
+import java.io.Serializable;
+
+/**
+ * 회원명 3-gram 색인 (username contains 검색용)
+ * - 회원명의 연속된 3글자마다 한 행 ("member1" -> mem, emb, mbe, ber, er1)
+ * - 검색어의 3-gram 을 모두 가진 회원만 후보로 골라내서 like '%x%' 전체 스캔을 피한다.
+ * - Member 저장/수정/삭제 시 MemberUsernameGramListener 가 같은 트랜잭션에서 갱신 (JDBC 직접)
+ */
+@Entity
+@Table(name = "member_username_gram",
+        indexes = @Index(name = "idx_member_username_gram", columnList = "gram, member_id"))
+@IdClass(MemberUsernameGram.Key.class)
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@ToString
+public class MemberUsernameGram {
+
+    public static final int GRAM_SIZE = 3;
+
+    @Id
+    @Column(name = "member_id")
+    private Long memberId;
+
+    @Id
+    @Column(name = "gram", length = GRAM_SIZE)
+    private String gram;
+
+    public MemberUsernameGram(Long memberId, String gram) {
+        this.memberId = memberId;
+        this.gram = gram;
+    }
+
+    @EqualsAndHashCode
+    @NoArgsConstructor
+    public static class Key implements Serializable {
+        private Long memberId;
+        private String gram;
+    }
+}
@@ -4,27 +4,40 @@ import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.ToString;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import javax.persistence.*;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@Table(indexes = @Index(name = "idx_team_name", columnList = "name"))      // teamName -> teamId
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "team")     // 2차 캐시 (ehcache.xml)
 @Getter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 @ToString(of = {"id", "name"})      // @ToString은 가급적 내부 필드만(연관관계 없는 필드만)
 public class Team {
 
-    @Id @GeneratedValue
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "team_seq_generator")
+    @SequenceGenerator(name = "team_seq_generator", sequenceName = "team_seq", allocationSize = 50)
     @Column(name = "team_id")
     private Long id;
 
     private String name;
 
+    @BatchSize(size = 100)      // 엔티티로 members 에 접근할 때도 팀 100개씩 IN 으로 한번에 초기화
     @OneToMany(mappedBy = "team")
     List<Member> members = new ArrayList<>();
 
     public Team(String name) {
         this.name = name;
     }
-}
\ No newline at end of file
+
+    public void changeName(String name) {
+        this.name = name;
+    }
+}
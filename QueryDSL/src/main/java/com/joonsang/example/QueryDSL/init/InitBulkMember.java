@@ -0,0 +1,30 @@
+package com.joonsang.example.QueryDSL.init;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+
+/**
+ * 부하 테스트용 대량 데이터 (spring.profiles.active = bulk)
+ */
+@Profile("bulk")
+@Component
+@RequiredArgsConstructor
+public class InitBulkMember {
+
+    private final MemberBulkLoader memberBulkLoader;
+
+    @Value("${member.bulk.teams:100}")
+    int teamCount;
+
+    @Value("${member.bulk.members:10000000}")
+    long memberCount;
+
+    @PostConstruct
+    public void init() {
+        memberBulkLoader.load(teamCount, memberCount);
+    }
+}
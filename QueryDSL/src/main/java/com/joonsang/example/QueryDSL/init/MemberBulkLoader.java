@@ -0,0 +1,110 @@
+package com.joonsang.example.QueryDSL.init;
+
+import com.joonsang.example.QueryDSL.entity.Member;
+import com.joonsang.example.QueryDSL.entity.Team;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 대량 데이터 적재 (부하 테스트용)
+ * - 시퀀스 pooled ID + hibernate.jdbc.batch_size + order_inserts 로 JDBC batch INSERT
+ * - batchSize 건마다 flush/clear 해서 영속성 컨텍스트가 커지지 않도록 유지
+ * - commitSize 건마다 트랜잭션을 나눠서 커밋 (undo 로그, 락 유지 시간 제한)
+ */
+@Slf4j
+@Component
+public class MemberBulkLoader {
+
+    @PersistenceContext
+    EntityManager em;
+
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int commitSize;
+
+    public MemberBulkLoader(PlatformTransactionManager transactionManager,
+                            @Value("${member.bulk.batch-size:1000}") int batchSize,
+                            @Value("${member.bulk.commit-size:100000}") int commitSize) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.commitSize = commitSize;
+    }
+
+    /**
+     * 팀 teamCount 개, 회원 memberCount 명 생성
+     * - 회원은 순서대로 팀에 고르게 나눠 담는다. (teamCount 가 0 이면 팀 없음)
+     */
+    public long load(int teamCount, long memberCount) {
+        long start = System.currentTimeMillis();
+
+        List<Long> teamIds = transactionTemplate.execute(status -> persistTeams(teamCount));
+
+        long loaded = 0;
+        while (loaded < memberCount) {
+            long from = loaded;
+            long to = Math.min(from + commitSize, memberCount);
+            transactionTemplate.executeWithoutResult(status -> persistMembers(teamIds, from, to, memberCount));
+            loaded = to;
+
+            log.info("bulk load members {}/{} ({} ms)", loaded, memberCount, System.currentTimeMillis() - start);
+        }
+        return loaded;
+    }
+
+    private List<Long> persistTeams(int teamCount) {
+        List<Team> teams = new ArrayList<>();
+        for (int i = 0; i < teamCount; i++) {
+            Team team = new Team("team" + i);
+            em.persist(team);
+            teams.add(team);
+
+            if ((i + 1) % batchSize == 0) {
+                em.flush();
+            }
+        }
+        em.flush();
+
+        List<Long> teamIds = new ArrayList<>();
+        for (Team team : teams) {
+            teamIds.add(team.getId());
+        }
+        em.clear();
+        return teamIds;
+    }
+
+    private void persistMembers(List<Long> teamIds, long from, long to, long memberCount) {
+        // clear 이후에는 이전 Team 이 준영속이 되므로, 배치마다 프록시를 다시 얻는다.
+        Map<Long, Team> teams = new HashMap<>();
+
+        for (long i = from; i < to; i++) {
+            Member member;
+            if (teamIds.isEmpty()) {
+                member = new Member("member" + i, (int) (i % 100));
+            } else {
+                Long teamId = teamIds.get((int) (i * teamIds.size() / memberCount));
+                Team team = teams.computeIfAbsent(teamId, id -> em.getReference(Team.class, id));
+                member = new Member("member" + i, (int) (i % 100), team);
+            }
+            em.persist(member);
+
+            if ((i - from + 1) % batchSize == 0) {
+                em.flush();
+                em.clear();
+                teams.clear();
+            }
+        }
+
+        em.flush();
+        em.clear();
+    }
+}
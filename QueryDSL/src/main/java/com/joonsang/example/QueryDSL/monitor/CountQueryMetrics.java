@@ -0,0 +1,54 @@
+package com.joonsang.example.QueryDSL.monitor;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongSupplier;
+
+/**
+ * PageableExecutionUtils 카운트 쿼리 생략 비율
+ * - repository.count.query{result=executed|skipped}
+ * - 첫 페이지 / 마지막 페이지라서 카운트가 필요 없으면 skipped
+ */
+@Component
+public class CountQueryMetrics {
+
+    private final Counter executed;
+    private final Counter skipped;
+
+    public CountQueryMetrics(MeterRegistry registry) {
+        this.executed = Counter.builder("repository.count.query")
+                .description("페이징 카운트 쿼리 실행 여부")
+                .tag("result", "executed")
+                .register(registry);
+        this.skipped = Counter.builder("repository.count.query")
+                .description("페이징 카운트 쿼리 실행 여부")
+                .tag("result", "skipped")
+                .register(registry);
+    }
+
+    /**
+     * PageableExecutionUtils.getPage() 와 같고, 카운트 실행 여부를 기록
+     */
+    public <T> Page<T> getPage(List<T> content, Pageable pageable, LongSupplier totalSupplier) {
+        AtomicBoolean counted = new AtomicBoolean();
+        Page<T> page = PageableExecutionUtils.getPage(content, pageable, () -> {
+            counted.set(true);
+            return totalSupplier.getAsLong();
+        });
+
+        (counted.get() ? executed : skipped).increment();
+        return page;
+    }
+
+    public double getSkippedRatio() {
+        double total = executed.count() + skipped.count();
+        return total == 0 ? 0 : skipped.count() / total;
+    }
+}
@@ -0,0 +1,31 @@
+package com.joonsang.example.QueryDSL.monitor;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Metrics;
+import org.hibernate.BaseSessionEventListener;
+
+/**
+ * flush(커밋 포함) 시점의 영속성 컨텍스트 크기
+ * - hibernate.session.events.auto 로 세션마다 Hibernate 가 직접 생성하므로 스프링 빈이 아니다.
+ *   (스프링 부트가 MeterRegistry 를 Metrics.globalRegistry 에도 등록하므로 그쪽으로 기록)
+ */
+public class PersistenceContextMetricsListener extends BaseSessionEventListener {
+
+    private static final DistributionSummary ENTITIES = DistributionSummary
+            .builder("hibernate.persistence.context.entities")
+            .description("flush 시점 영속성 컨텍스트의 엔티티 수")
+            .publishPercentiles(0.5, 0.95, 0.99)
+            .register(Metrics.globalRegistry);
+
+    private static final DistributionSummary COLLECTIONS = DistributionSummary
+            .builder("hibernate.persistence.context.collections")
+            .description("flush 시점 영속성 컨텍스트의 컬렉션 수")
+            .publishPercentiles(0.5, 0.95, 0.99)
+            .register(Metrics.globalRegistry);
+
+    @Override
+    public void flushEnd(int numberOfEntities, int numberOfCollections) {
+        ENTITIES.record(numberOfEntities);
+        COLLECTIONS.record(numberOfCollections);
+    }
+}
@@ -0,0 +1,116 @@
+package com.joonsang.example.QueryDSL.monitor;
+
+import com.joonsang.example.QueryDSL.config.RepositoryAspectOrder;
+import com.joonsang.example.QueryDSL.datasource.StatementScope;
+import com.joonsang.example.QueryDSL.dto.MemberCursorPage;
+import com.joonsang.example.QueryDSL.dto.MemberSearchCondition;
+import com.joonsang.example.QueryDSL.repository.MemberSearchShape;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+
+/**
+ * 레포지토리 메서드 단위 Micrometer 지표
+ * - repository.query      : 실행 시간 (repository, method, shape, outcome), p50/p95/p99 + 히스토그램
+ * - repository.query.rows : 반환 건수 (Stream 은 지연 조회라 제외)
+ * - shape 는 MemberSearchShape 이름 (조건 조합이 최대 64개라 태그 수가 제한된다)
+ * - outcome : success | error | timeout (쿼리 시간 제한 초과) | cancelled (클라이언트 연결 끊김으로 취소)
+ * - repository.query.interrupted{reason=timeout} : 시간 제한 초과 횟수 (cancelled 는 QueryCancellationFilter 가 기록)
+ */
+@Aspect
+@Order(RepositoryAspectOrder.METRICS)
+@Component
+public class RepositoryMetricsAspect {
+
+    private final MeterRegistry registry;
+
+    public RepositoryMetricsAspect(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Around("within(com.joonsang.example.QueryDSL.repository.*RepositoryImpl)")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        String repository = joinPoint.getSignature().getDeclaringType().getSimpleName();
+        String method = joinPoint.getSignature().getName();
+        String shape = shapeOf(joinPoint.getArgs());
+
+        Timer.Sample sample = Timer.start(registry);
+        String outcome = "error";
+        try {
+            Object result = joinPoint.proceed();
+            outcome = "success";
+            recordRows(repository, method, result);
+            return result;
+        } catch (Throwable e) {
+            outcome = interruption(e);
+            if ("timeout".equals(outcome)) {
+                registry.counter("repository.query.interrupted", "reason", "timeout").increment();
+            }
+            throw e;
+        } finally {
+            sample.stop(Timer.builder("repository.query")
+                    .description("레포지토리 조회 실행 시간")
+                    .tag("repository", repository)
+                    .tag("method", method)
+                    .tag("shape", shape)
+                    .tag("outcome", outcome)
+                    .publishPercentiles(0.5, 0.95, 0.99)
+                    .publishPercentileHistogram()
+                    .register(registry));
+        }
+    }
+
+    private void recordRows(String repository, String method, Object result) {
+        long rows;
+        if (result instanceof Collection) {
+            rows = ((Collection<?>) result).size();
+        } else if (result instanceof Slice) {
+            rows = ((Slice<?>) result).getNumberOfElements();
+        } else if (result instanceof MemberCursorPage) {
+            rows = ((MemberCursorPage) result).getContent().size();
+        } else {
+            return;
+        }
+
+        DistributionSummary.builder("repository.query.rows")
+                .description("레포지토리 조회 반환 건수")
+                .baseUnit("rows")
+                .tag("repository", repository)
+                .tag("method", method)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(registry)
+                .record(rows);
+    }
+
+    /**
+     * H2 는 시간 제한 초과와 Statement.cancel() 모두 57014 -> QueryTimeoutException 이라, 요청 구간이 취소됐는지로 구분
+     */
+    private static String interruption(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof javax.persistence.QueryTimeoutException
+                    || cause instanceof org.hibernate.QueryTimeoutException
+                    || cause instanceof org.springframework.dao.QueryTimeoutException) {
+                StatementScope scope = StatementScope.current();
+                return scope != null && scope.isCancelled() ? "cancelled" : "timeout";
+            }
+        }
+        return "error";
+    }
+
+    private static String shapeOf(Object[] args) {
+        for (Object arg : args) {
+            if (arg instanceof MemberSearchCondition) {
+                return MemberSearchShape.name(MemberSearchShape.of((MemberSearchCondition) arg));
+            }
+        }
+        return "none";
+    }
+}
@@ -0,0 +1,39 @@
+package com.joonsang.example.QueryDSL.monitor;
+
+import com.joonsang.example.QueryDSL.config.RepositoryAspectOrder;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * 레포지토리 메서드 단위 SQL 통계
+ * - MemberRepositoryImpl 의 각 메서드가 실행한 SQL 수를 기록 (카운트 쿼리 병렬 실행분 포함)
+ */
+@Aspect
+@Order(RepositoryAspectOrder.SQL_STATISTICS)
+@Component
+public class RepositorySqlStatisticsAspect {
+
+    private final SqlStatementRecorder recorder;
+    private final int methodBudget;
+
+    public RepositorySqlStatisticsAspect(SqlStatementRecorder recorder,
+                                         @Value("${monitor.sql.repository-budget:3}") int methodBudget) {
+        this.recorder = recorder;
+        this.methodBudget = methodBudget;
+    }
+
+    @Around("within(com.joonsang.example.QueryDSL.repository.MemberRepositoryImpl)")
+    public Object record(ProceedingJoinPoint joinPoint) throws Throwable {
+        SqlStatistics statistics = recorder.begin("MemberRepository." + joinPoint.getSignature().getName());
+        try {
+            return joinPoint.proceed();
+        } finally {
+            recorder.end(statistics);
+            recorder.report(statistics, methodBudget);
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.joonsang.example.QueryDSL.monitor;
+
+import com.p6spy.engine.common.ResultSetInformation;
+import com.p6spy.engine.common.StatementInformation;
+import com.p6spy.engine.event.JdbcEventListener;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * JDBC 실행 기록 (p6spy JdbcEventListener)
+ * - 쓰레드별로 열려있는 구간(SqlStatistics)에 SQL 실행 횟수, 조회 건수, 시간을 기록
+ * - 구간은 중첩 가능 (HTTP 요청 > 레포지토리 메서드)
+ * - 의도적으로 나눠 실행하는 같은 모양의 SQL(IN 절 청크 등)은 batch() 로 묶어서 N+1 로 보지 않는다.
+ */
+@Slf4j
+@Component
+public class SqlStatementRecorder extends JdbcEventListener {
+
+    private static final ThreadLocal<Deque<SqlStatistics>> SCOPES = new ThreadLocal<>();
+    private static final ThreadLocal<Object> BATCH = new ThreadLocal<>();
+
+    private final int nPlusOneThreshold;
+
+    public SqlStatementRecorder(@Value("${monitor.sql.n-plus-one-threshold:3}") int nPlusOneThreshold) {
+        this.nPlusOneThreshold = nPlusOneThreshold;
+    }
+
+    public SqlStatistics begin(String name) {
+        Deque<SqlStatistics> scopes = SCOPES.get();
+        if (scopes == null) {
+            scopes = new ArrayDeque<>();
+            SCOPES.set(scopes);
+        }
+
+        SqlStatistics statistics = new SqlStatistics(name);
+        scopes.push(statistics);
+        return statistics;
+    }
+
+    public void end(SqlStatistics statistics) {
+        Deque<SqlStatistics> scopes = SCOPES.get();
+        if (scopes == null) {
+            return;
+        }
+
+        scopes.remove(statistics);
+        if (scopes.isEmpty()) {
+            SCOPES.remove();
+        }
+    }
+
+    public SqlStatistics record(String name, Runnable runnable) {
+        SqlStatistics statistics = begin(name);
+        try {
+            runnable.run();
+        } finally {
+            end(statistics);
+        }
+        return statistics;
+    }
+
+    /**
+     * supplier 가 실행하는 같은 모양의 SQL 을 N+1 판단에서 한번으로 센다. (하나의 논리적 조회)
+     * - 실행 횟수, 조회 건수, 시간은 그대로 기록
+     * - searchQueryExecutor 로 넘긴 작업도 같은 묶음 (propagate), 묶음 안에서 다시 호출하면 바깥 묶음 그대로
+     */
+    public static <T> T batch(Supplier<T> supplier) {
+        if (BATCH.get() != null) {
+            return supplier.get();
+        }
+
+        BATCH.set(new Object());
+        try {
+            return supplier.get();
+        } finally {
+            BATCH.remove();
+        }
+    }
+
+    /**
+     * 구간 통계를 로그로 남기고, N+1 의심 SQL 이나 예산(budget) 초과는 경고
+     */
+    public void report(SqlStatistics statistics, int statementBudget) {
+        Map<String, Integer> suspects = statistics.getNPlusOneSuspects(nPlusOneThreshold);
+        if (!suspects.isEmpty()) {
+            log.warn("[SQL] N+1 suspect {} {}", statistics, suspects);
+        } else if (statementBudget > 0 && statistics.getStatementCount() > statementBudget) {
+            log.warn("[SQL] statement budget({}) exceeded {}", statementBudget, statistics);
+        } else {
+            log.debug("[SQL] {}", statistics);
+        }
+    }
+
+    public int getNPlusOneThreshold() {
+        return nPlusOneThreshold;
+    }
+
+    /**
+     * 다른 쓰레드(searchQueryExecutor)에서 실행되는 쿼리도 호출한 쪽 구간에 기록되도록 전달
+     */
+    public static Runnable propagate(Runnable runnable) {
+        Deque<SqlStatistics> scopes = SCOPES.get();
+        if (scopes == null || scopes.isEmpty()) {
+            return runnable;
+        }
+
+        Deque<SqlStatistics> captured = new ArrayDeque<>(scopes);
+        Object batch = BATCH.get();
+        return () -> {
+            Deque<SqlStatistics> previous = SCOPES.get();
+            Object previousBatch = BATCH.get();
+            SCOPES.set(captured);
+            BATCH.set(batch);
+            try {
+                runnable.run();
+            } finally {
+                if (previous == null) {
+                    SCOPES.remove();
+                } else {
+                    SCOPES.set(previous);
+                }
+                if (previousBatch == null) {
+                    BATCH.remove();
+                } else {
+                    BATCH.set(previousBatch);
+                }
+            }
+        };
+    }
+
+    @Override
+    public void onAfterAnyExecute(StatementInformation statementInformation, long timeElapsedNanos, SQLException e) {
+        Deque<SqlStatistics> scopes = SCOPES.get();
+        if (scopes == null) {
+            return;
+        }
+
+        String sql = statementInformation.getSql();
+        Object batch = BATCH.get();
+        for (SqlStatistics statistics : scopes) {
+            statistics.recordStatement(sql, timeElapsedNanos, batch);
+        }
+    }
+
+    @Override
+    public void onAfterResultSetNext(ResultSetInformation resultSetInformation, long timeElapsedNanos, boolean hasNext, SQLException e) {
+        Deque<SqlStatistics> scopes = SCOPES.get();
+        if (!hasNext || scopes == null) {
+            return;
+        }
+
+        for (SqlStatistics statistics : scopes) {
+            statistics.recordRow();
+        }
+    }
+}
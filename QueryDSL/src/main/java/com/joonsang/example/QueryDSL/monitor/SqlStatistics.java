@@ -0,0 +1,82 @@
+package com.joonsang.example.QueryDSL.monitor;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * 한 구간(HTTP 요청, 레포지토리 메서드, 테스트 블록)에서 실행된 SQL 통계
+ * - 같은 모양의 SQL 이 여러 번 반복되면 N+1 의심
+ *   단, 한 묶음(SqlStatementRecorder.batch) 안에서 반복된 같은 모양은 한번으로 센다. (실행 횟수는 모두 기록)
+ * - 병렬 쿼리(searchQueryExecutor)에서도 기록되므로 동기화
+ */
+public class SqlStatistics {
+
+    private static final Pattern COMMENT = Pattern.compile("/\\*.*?\\*/", Pattern.DOTALL);
+    private static final Pattern IN_LIST = Pattern.compile("\\(\\s*\\?(\\s*,\\s*\\?)*\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final String name;
+    private int statementCount;
+    private long rowCount;
+    private long elapsedNanos;
+    private final Map<String, Integer> shapeCounts = new LinkedHashMap<>();
+    private final Set<List<Object>> batchedShapes = new HashSet<>();
+
+    public SqlStatistics(String name) {
+        this.name = name;
+    }
+
+    /**
+     * @param batch 실행한 묶음, 묶음 밖이면 null
+     */
+    synchronized void recordStatement(String sql, long nanos, Object batch) {
+        statementCount++;
+        elapsedNanos += nanos;
+
+        String shape = shapeOf(sql);
+        if (batch == null || batchedShapes.add(Arrays.asList(batch, shape))) {
+            shapeCounts.merge(shape, 1, Integer::sum);
+        }
+    }
+
+    synchronized void recordRow() {
+        rowCount++;
+    }
+
+    public String getName() { return name; }
+    public synchronized int getStatementCount() { return statementCount; }
+    public synchronized long getRowCount() { return rowCount; }
+    public synchronized long getElapsedMillis() { return elapsedNanos / 1_000_000; }
+
+    /**
+     * @return threshold 번 이상 반복된 SQL 모양과 실행 횟수
+     */
+    public synchronized Map<String, Integer> getNPlusOneSuspects(int threshold) {
+        Map<String, Integer> suspects = new LinkedHashMap<>();
+        shapeCounts.forEach((shape, count) -> {
+            if (count >= threshold) {
+                suspects.put(shape, count);
+            }
+        });
+        return suspects;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return name + " statements=" + statementCount + " rows=" + rowCount + " time=" + getElapsedMillis() + "ms";
+    }
+
+    /**
+     * 주석 제거, 공백 정리, IN 목록 크기 무시 -> 값만 다른 SQL 은 같은 모양
+     */
+    static String shapeOf(String sql) {
+        String shape = COMMENT.matcher(sql).replaceAll(" ");
+        shape = IN_LIST.matcher(shape).replaceAll("(?)");
+        return WHITESPACE.matcher(shape).replaceAll(" ").trim();
+    }
+}
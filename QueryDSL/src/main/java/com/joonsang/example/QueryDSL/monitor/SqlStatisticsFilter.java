@@ -0,0 +1,64 @@
+package com.joonsang.example.QueryDSL.monitor;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * HTTP 요청 단위 SQL 통계
+ * - 요청 하나에서 실행된 SQL 수가 예산을 넘거나 N+1 이 의심되면 경고 로그
+ * - 비동기 요청(Callable)은 작업 쓰레드로 전달된 구간에 계속 기록되므로 요청이 끝날 때(onComplete) 로그
+ */
+@Component
+public class SqlStatisticsFilter extends OncePerRequestFilter {
+
+    private final SqlStatementRecorder recorder;
+    private final int requestBudget;
+
+    public SqlStatisticsFilter(SqlStatementRecorder recorder,
+                               @Value("${monitor.sql.request-budget:10}") int requestBudget) {
+        this.recorder = recorder;
+        this.requestBudget = requestBudget;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        SqlStatistics statistics = recorder.begin(request.getMethod() + " " + request.getRequestURI());
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            recorder.end(statistics);
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new AsyncListener() {
+                    @Override
+                    public void onComplete(AsyncEvent event) {
+                        recorder.report(statistics, requestBudget);
+                    }
+
+                    @Override
+                    public void onTimeout(AsyncEvent event) {
+                    }
+
+                    @Override
+                    public void onError(AsyncEvent event) {
+                    }
+
+                    @Override
+                    public void onStartAsync(AsyncEvent event) {
+                    }
+                });
+            } else {
+                recorder.report(statistics, requestBudget);
+            }
+        }
+    }
+}
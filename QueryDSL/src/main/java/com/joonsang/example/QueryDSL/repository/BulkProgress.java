@@ -0,0 +1,33 @@
+package com.joonsang.example.QueryDSL.repository;
+
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * 청크 단위 벌크 연산 진행 상황
+ * - 청크 하나가 커밋될 때마다 BulkProgressListener 로 전달된다.
+ */
+@Getter
+@ToString
+public class BulkProgress {
+
+    private final String operation;
+    private final long chunk;
+    private final long totalChunks;
+    private final long chunkRows;
+    private final long affectedRows;
+    private final long elapsedMillis;
+
+    BulkProgress(String operation, long chunk, long totalChunks, long chunkRows, long affectedRows, long elapsedMillis) {
+        this.operation = operation;
+        this.chunk = chunk;
+        this.totalChunks = totalChunks;
+        this.chunkRows = chunkRows;
+        this.affectedRows = affectedRows;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public boolean isCompleted() {
+        return chunk == totalChunks;
+    }
+}
@@ -0,0 +1,9 @@
+package com.joonsang.example.QueryDSL.repository;
+
+@FunctionalInterface
+public interface BulkProgressListener {
+
+    BulkProgressListener NONE = progress -> { };
+
+    void onChunk(BulkProgress progress);
+}
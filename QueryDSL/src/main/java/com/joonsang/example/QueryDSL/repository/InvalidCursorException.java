@@ -0,0 +1,12 @@
+package com.joonsang.example.QueryDSL.repository;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidCursorException extends IllegalArgumentException {
+
+    public InvalidCursorException(String cursor) {
+        super("잘못된 커서 값 입니다. cursor=" + cursor);
+    }
+}
@@ -0,0 +1,12 @@
+package com.joonsang.example.QueryDSL.repository;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidPageSizeException extends IllegalArgumentException {
+
+    public InvalidPageSizeException(int size) {
+        super("size 는 1 이상이어야 합니다. size=" + size);
+    }
+}
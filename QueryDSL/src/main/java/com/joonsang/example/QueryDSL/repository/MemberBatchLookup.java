@@ -0,0 +1,147 @@
+package com.joonsang.example.QueryDSL.repository;
+
+import com.joonsang.example.QueryDSL.dto.MemberTeamDto;
+import com.joonsang.example.QueryDSL.dto.QMemberTeamDto;
+import com.joonsang.example.QueryDSL.monitor.SqlStatementRecorder;
+import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+import static com.joonsang.example.QueryDSL.entity.QMember.member;
+import static com.joonsang.example.QueryDSL.entity.QTeam.team;
+
+/**
+ * 여러 키(회원 ID / 회원명)로 한번에 조회
+ * - 중복, null 키를 제거하고 chunkSize 개씩 IN 절로 나눠서 조회
+ *   (IN 절 파라미터 수는 hibernate.query.in_clause_parameter_padding 으로 2의 거듭제곱으로 맞춰져서 SQL 종류가 늘지 않는다.)
+ * - 청크가 여러 개면 첫 청크는 호출 쓰레드, 나머지는 searchQueryExecutor 에서 병렬로 실행 (호출 측 트랜잭션 밖)
+ * - 결과는 입력 순서 그대로, 없는 키 자리는 null
+ * - 청크 쿼리들은 모양이 같으므로, SQL 통계에서는 하나의 조회로 묶는다. (SqlStatementRecorder.batch, N+1 아님)
+ */
+@Component
+public class MemberBatchLookup {
+
+    private static final QMemberTeamDto PROJECTION = new QMemberTeamDto(
+            member.id.as("memberId"),
+            member.username,
+            member.age,
+            team.id.as("teamId"),
+            team.name.as("teamName"));
+
+    private final JPAQueryFactory jpaQueryFactory;
+    private final ThreadPoolTaskExecutor searchQueryExecutor;
+    private final int chunkSize;
+    private final int maxKeys;
+
+    public MemberBatchLookup(JPAQueryFactory jpaQueryFactory,
+                             @Qualifier("searchQueryExecutor") ThreadPoolTaskExecutor searchQueryExecutor,
+                             @Value("${member.lookup.chunk-size:500}") int chunkSize,
+                             @Value("${member.lookup.max-keys:10000}") int maxKeys) {
+        this.jpaQueryFactory = jpaQueryFactory;
+        this.searchQueryExecutor = searchQueryExecutor;
+        this.chunkSize = chunkSize;
+        this.maxKeys = maxKeys;
+    }
+
+    public List<MemberTeamDto> findByIds(List<Long> ids) {
+        return lookup(ids, chunk -> member.id.in(chunk), MemberTeamDto::getMemberId);
+    }
+
+    /**
+     * 회원명은 중복될 수 있으므로, 같은 회원명이면 member_id 가 가장 작은 회원
+     */
+    public List<MemberTeamDto> findByUsernames(List<String> usernames) {
+        return lookup(usernames, chunk -> member.username.in(chunk), MemberTeamDto::getUsername);
+    }
+
+    private <K> List<MemberTeamDto> lookup(List<K> keys, Function<Collection<K>, BooleanExpression> keyIn,
+                                           Function<MemberTeamDto, K> keyOf) {
+        if (keys.size() > maxKeys) {
+            throw new TooManyLookupKeysException(keys.size(), maxKeys);
+        }
+        return SqlStatementRecorder.batch(() -> lookupChunks(keys, keyIn, keyOf));
+    }
+
+    private <K> List<MemberTeamDto> lookupChunks(List<K> keys, Function<Collection<K>, BooleanExpression> keyIn,
+                                                 Function<MemberTeamDto, K> keyOf) {
+        List<List<K>> chunks = partition(keys);
+        List<Future<List<MemberTeamDto>>> futures = new ArrayList<>();
+        try {
+            for (int i = 1; i < chunks.size(); i++) {
+                List<K> chunk = chunks.get(i);
+                futures.add(searchQueryExecutor.submit(() -> fetch(keyIn.apply(chunk))));
+            }
+
+            Map<K, MemberTeamDto> found = new HashMap<>();
+            if (!chunks.isEmpty()) {
+                collect(found, fetch(keyIn.apply(chunks.get(0))), keyOf);
+            }
+            for (Future<List<MemberTeamDto>> future : futures) {
+                collect(found, await(future), keyOf);
+            }
+
+            List<MemberTeamDto> result = new ArrayList<>(keys.size());
+            for (K key : keys) {
+                result.add(key == null ? null : found.get(key));
+            }
+            return result;
+        } finally {
+            futures.forEach(future -> future.cancel(true));
+        }
+    }
+
+    private <K> List<List<K>> partition(List<K> keys) {
+        List<K> distinct = new ArrayList<>(new LinkedHashSet<>(keys));
+        distinct.removeIf(Objects::isNull);
+
+        List<List<K>> chunks = new ArrayList<>();
+        for (int from = 0; from < distinct.size(); from += chunkSize) {
+            chunks.add(distinct.subList(from, Math.min(from + chunkSize, distinct.size())));
+        }
+        return chunks;
+    }
+
+    private List<MemberTeamDto> fetch(BooleanExpression keyIn) {
+        return jpaQueryFactory
+                .select(PROJECTION)
+                .from(member)
+                .leftJoin(member.team, team)
+                .where(keyIn)
+                .orderBy(member.id.asc())
+                .fetch();
+    }
+
+    private static <K> void collect(Map<K, MemberTeamDto> found, List<MemberTeamDto> rows, Function<MemberTeamDto, K> keyOf) {
+        for (MemberTeamDto row : rows) {
+            found.putIfAbsent(keyOf.apply(row), row);
+        }
+    }
+
+    private static List<MemberTeamDto> await(Future<List<MemberTeamDto>> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("일괄 조회 대기 중 인터럽트 발생", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException("일괄 조회 실패", e.getCause());
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.joonsang.example.QueryDSL.repository;
+
+import com.joonsang.example.QueryDSL.dto.MemberSearchCondition;
+import com.joonsang.example.QueryDSL.entity.Team;
+import com.querydsl.core.Tuple;
+import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.jpa.JPAExpressions;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.List;
+
+import static com.joonsang.example.QueryDSL.entity.QMember.member;
+import static com.joonsang.example.QueryDSL.entity.QMemberUsernameGram.memberUsernameGram;
+import static com.joonsang.example.QueryDSL.repository.MemberPredicates.*;
+
+/**
+ * 회원 벌크 수정/삭제 (청크 단위)
+ * - 조건에 맞는 회원의 ID 범위를 chunkSize 씩 나눠서 update/delete 를 실행 (한번에 잡는 락, undo/redo 크기 제한)
+ * - 청크마다 트랜잭션을 나눠서 커밋. 이미 트랜잭션 안에서 호출되면 그 트랜잭션에 참여한다.
+ * - 벌크 연산은 영속성 컨텍스트를 거치지 않으므로 청크 전에 flush, 청크 후에 clear 해서 1차 캐시와 DB 상태를 맞춘다.
+ * - 엔티티 이벤트(MemberChangeListener)가 발생하지 않으므로 카운트 캐시 무효화는 MemberChangeListener.onBulkChange() 로 직접 알린다.
+ * - 엔티티 이벤트로 증분 갱신되는 팀 통계(TeamStatistics)도 벌크 연산 후에는 다시 집계
+ * - 파티션 모드에서는 청크의 member_id 범위를 커밋 후 파티션에 다시 복제 (PartitionedMemberMirror)
+ */
+@Slf4j
+@Component
+public class MemberBulkOperations {
+
+    @PersistenceContext
+    EntityManager em;
+
+    private final JPAQueryFactory jpaQueryFactory;
+    private final TransactionTemplate transactionTemplate;
+    private final TeamRepository teamRepository;
+    private final MemberChangeListener memberChangeListener;
+    private final TeamStatistics teamStatistics;
+    private final ObjectProvider<PartitionedMemberMirror> partitionedMemberMirror;
+    private final int chunkSize;
+
+    public MemberBulkOperations(JPAQueryFactory jpaQueryFactory,
+                                PlatformTransactionManager transactionManager,
+                                TeamRepository teamRepository,
+                                MemberChangeListener memberChangeListener,
+                                TeamStatistics teamStatistics,
+                                ObjectProvider<PartitionedMemberMirror> partitionedMemberMirror,
+                                @Value("${member.bulk.chunk-size:10000}") int chunkSize) {
+        if (chunkSize < 1) {
+            throw new IllegalStateException("member.bulk.chunk-size 는 1 이상이어야 합니다. value=" + chunkSize);
+        }
+        this.jpaQueryFactory = jpaQueryFactory;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.teamRepository = teamRepository;
+        this.memberChangeListener = memberChangeListener;
+        this.teamStatistics = teamStatistics;
+        this.partitionedMemberMirror = partitionedMemberMirror;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * 조건에 맞는 회원 나이 += amount
+     */
+    public long increaseAge(MemberSearchCondition condition, int amount, BulkProgressListener listener) {
+        return execute("increaseAge", condition, listener, (range, fromId, toId) -> jpaQueryFactory
+                .update(member)
+                .set(member.age, member.age.add(amount))
+                .where(range)
+                .execute());
+    }
+
+    /**
+     * 조건에 맞는 회원을 teamId 팀으로 이동
+     */
+    public long moveToTeam(MemberSearchCondition condition, Long teamId, BulkProgressListener listener) {
+        if (teamId == null || !teamRepository.existsById(teamId)) {
+            throw new IllegalArgumentException("존재하지 않는 팀입니다. teamId=" + teamId);
+        }
+
+        return execute("moveToTeam", condition, listener, (range, fromId, toId) -> jpaQueryFactory
+                .update(member)
+                .set(member.team, em.getReference(Team.class, teamId))
+                .where(range)
+                .execute());
+    }
+
+    /**
+     * 조건에 맞는 회원 삭제
+     * - 회원명 3-gram 색인도 같은 청크 트랜잭션에서 정리 (벌크 delete 는 MemberUsernameGramListener 를 거치지 않는다)
+     */
+    public long delete(MemberSearchCondition condition, BulkProgressListener listener) {
+        return execute("delete", condition, listener, (range, fromId, toId) -> {
+            long deleted = jpaQueryFactory
+                    .delete(member)
+                    .where(range)
+                    .execute();
+
+            jpaQueryFactory
+                    .delete(memberUsernameGram)
+                    .where(
+                            memberUsernameGram.memberId.between(fromId, toId),
+                            memberUsernameGram.memberId.notIn(
+                                    JPAExpressions
+                                            .select(member.id)
+                                            .from(member)
+                                            .where(member.id.between(fromId, toId))))
+                    .execute();
+            return deleted;
+        });
+    }
+
+    private long execute(String operation, MemberSearchCondition condition, BulkProgressListener listener,
+                         ChunkOperation chunkOperation) {
+        long start = System.currentTimeMillis();
+
+        List<Long> teamIds = teamRepository.resolveTeamIds(condition.getTeamName());
+        if (teamIds != null && teamIds.isEmpty()) {
+            return 0;
+        }
+
+        BooleanExpression where = member.id.isNotNull()
+                .and(usernameEq(condition.getUsername()))
+                .and(usernameStartsWith(condition.getUsernamePrefix()))
+                .and(usernameContains(condition.getUsernameContains()))
+                .and(teamIdIn(teamIds))
+                .and(ageGoe(condition.getAgeGoe()))
+                .and(ageLoe(condition.getAgeLoe()));
+
+        Tuple idRange = jpaQueryFactory
+                .select(member.id.min(), member.id.max())
+                .from(member)
+                .where(where)
+                .fetchOne();
+        Long minId = idRange == null ? null : idRange.get(member.id.min());
+        Long maxId = idRange == null ? null : idRange.get(member.id.max());
+        if (minId == null || maxId == null) {
+            return 0;
+        }
+
+        long totalChunks = (maxId - minId) / chunkSize + 1;
+        long affected = 0;
+
+        for (long chunk = 1; chunk <= totalChunks; chunk++) {
+            long from = minId + (chunk - 1) * chunkSize;
+            long to = Math.min(from + chunkSize - 1, maxId);
+
+            Long chunkRows = transactionTemplate.execute(status -> {
+                em.flush();
+                long rows = chunkOperation.execute(where.and(member.id.between(from, to)), from, to);
+                em.clear();
+                partitionedMemberMirror.ifAvailable(mirror -> mirror.resyncRangeAfterCommit(from, to));
+                memberChangeListener.onBulkChange();
+                return rows;
+            });
+            affected += chunkRows == null ? 0 : chunkRows;
+
+            BulkProgress progress = new BulkProgress(operation, chunk, totalChunks,
+                    chunkRows == null ? 0 : chunkRows, affected, System.currentTimeMillis() - start);
+            log.debug("bulk {}", progress);
+            listener.onChunk(progress);
+        }
+
+        if (affected > 0) {
+            teamStatistics.rebuildAfterCommit();
+        }
+
+        log.info("bulk {} {} rows in {} chunks ({} ms)", operation, affected, totalChunks, System.currentTimeMillis() - start);
+        return affected;
+    }
+
+    @FunctionalInterface
+    private interface ChunkOperation {
+        long execute(BooleanExpression range, long fromId, long toId);
+    }
+}
@@ -0,0 +1,109 @@
+package com.joonsang.example.QueryDSL.repository;
+
+import com.joonsang.example.QueryDSL.entity.Member;
+import com.joonsang.example.QueryDSL.entity.Team;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.internal.SessionFactoryImpl;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManagerFactory;
+
+/**
+ * Member / Team 엔티티 변경 감지
+ * - Hibernate POST_INSERT / POST_UPDATE / POST_DELETE 이벤트로 등록 (TeamStatisticsEventListener 와 같은 방식)
+ *   엔티티가 레포지토리 계층을 참조하지 않도록 @EntityListeners 는 쓰지 않는다.
+ * - 변경 즉시 한번, 트랜잭션 종료(커밋/롤백) 후 한번 더 카운트 캐시를 무효화
+ *   (트랜잭션 도중 다른 쓰레드가 이전 값을 다시 캐시에 담는 경우를 막기 위함)
+ * - 데이터 버전(MemberDataVersion)은 트랜잭션 종료 후에만 올린다.
+ */
+@Component
+public class MemberChangeListener implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener {
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final MemberCountCache memberCountCache;
+    private final MemberDataVersion memberDataVersion;
+
+    public MemberChangeListener(EntityManagerFactory entityManagerFactory,
+                                MemberCountCache memberCountCache,
+                                MemberDataVersion memberDataVersion) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.memberCountCache = memberCountCache;
+        this.memberDataVersion = memberDataVersion;
+    }
+
+    @PostConstruct
+    public void register() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImpl.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_INSERT, this);
+        registry.appendListeners(EventType.POST_UPDATE, this);
+        registry.appendListeners(EventType.POST_DELETE, this);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        onChange(event.getEntity());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        onChange(event.getEntity());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        onChange(event.getEntity());
+    }
+
+    @Override
+    public boolean requiresPostCommitHanding(EntityPersister persister) {
+        return false;
+    }
+
+    private void onChange(Object entity) {
+        if (entity instanceof Member || entity instanceof Team) {
+            onBulkChange();
+        }
+    }
+
+    /**
+     * 엔티티 이벤트가 없는 벌크 update/delete 후 직접 호출
+     */
+    public void onBulkChange() {
+        memberCountCache.invalidateAll();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            memberDataVersion.increment();
+            return;
+        }
+        registerAfterCompletion();
+    }
+
+    private void registerAfterCompletion() {
+        if (TransactionSynchronizationManager.hasResource(this)) {
+            return;
+        }
+
+        // 트랜잭션 당 한번만 등록
+        TransactionSynchronizationManager.bindResource(this, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(MemberChangeListener.this);
+                memberCountCache.invalidateAll();
+                memberDataVersion.increment();
+            }
+        });
+    }
+}
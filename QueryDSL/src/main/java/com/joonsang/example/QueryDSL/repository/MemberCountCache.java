@@ -0,0 +1,161 @@
+package com.joonsang.example.QueryDSL.repository;
+
+import com.joonsang.example.QueryDSL.dto.MemberSearchCondition;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Clock;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import static org.springframework.util.ObjectUtils.isEmpty;
+
+/**
+ * 검색 조건별 전체 카운트 캐시
+ * - 같은 조건으로 페이지만 넘기는 경우, 매번 count(*) 를 다시 실행하지 않는다.
+ * - 크기 제한(LRU) + TTL, Member / Team 변경 시 전체 무효화 (MemberChangeListener)
+ * - 쓰기 트랜잭션 안에서는 자기 자신의 변경 내용이 보여야 하므로 캐시를 사용하지 않는다.
+ */
+@Component
+public class MemberCountCache {
+
+    private final int maxSize;
+    private final long ttlMillis;
+    private final Clock clock;
+    private final Map<MemberSearchCondition, Entry> entries;
+
+    private final AtomicLong generation = new AtomicLong();
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final AtomicLong bypassCount = new AtomicLong();
+    private final AtomicLong evictionCount = new AtomicLong();
+
+    @Autowired
+    public MemberCountCache(@Value("${member.count-cache.max-size:1000}") int maxSize,
+                            @Value("${member.count-cache.ttl-seconds:30}") long ttlSeconds) {
+        this(maxSize, ttlSeconds * 1000, Clock.systemUTC());
+    }
+
+    MemberCountCache(int maxSize, long ttlMillis, Clock clock) {
+        this.maxSize = maxSize;
+        this.ttlMillis = ttlMillis;
+        this.clock = clock;
+        this.entries = new LinkedHashMap<MemberSearchCondition, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<MemberSearchCondition, Entry> eldest) {
+                if (size() > MemberCountCache.this.maxSize) {
+                    evictionCount.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * 캐시에 있으면 캐시 값을, 없으면 loader 로 카운트 쿼리를 실행하고 캐시에 담는다.
+     */
+    public long getCount(MemberSearchCondition condition, LongSupplier loader) {
+        if (isWriteTransaction()) {
+            bypassCount.incrementAndGet();
+            return loader.getAsLong();
+        }
+
+        Long cached = getIfPresent(condition);
+        if (cached != null) {
+            return cached;
+        }
+
+        missCount.incrementAndGet();
+        long startGeneration = generation.get();
+        long count = loader.getAsLong();
+
+        synchronized (entries) {
+            // 조회 도중 무효화 되었다면, 이미 오래된 값일 수 있으므로 담지 않는다.
+            if (startGeneration == generation.get()) {
+                entries.put(normalize(condition), new Entry(count, clock.millis() + ttlMillis));
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @return 유효한 캐시 값이 없으면 null
+     */
+    public Long getIfPresent(MemberSearchCondition condition) {
+        if (isWriteTransaction()) {
+            return null;
+        }
+
+        MemberSearchCondition key = normalize(condition);
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (entry.expiresAt <= clock.millis()) {
+                entries.remove(key);
+                return null;
+            }
+            hitCount.incrementAndGet();
+            return entry.count;
+        }
+    }
+
+    public void invalidateAll() {
+        synchronized (entries) {
+            generation.incrementAndGet();
+            entries.clear();
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public long getHitCount() { return hitCount.get(); }
+    public long getMissCount() { return missCount.get(); }
+    public long getBypassCount() { return bypassCount.get(); }
+    public long getEvictionCount() { return evictionCount.get(); }
+
+    public double getHitRate() {
+        long hits = hitCount.get();
+        long total = hits + missCount.get();
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+
+    private boolean isWriteTransaction() {
+        return TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+
+    /**
+     * "" 와 null 은 같은 조건이므로 같은 키가 되도록 정규화
+     */
+    static MemberSearchCondition normalize(MemberSearchCondition condition) {
+        MemberSearchCondition key = new MemberSearchCondition();
+        key.setUsername(isEmpty(condition.getUsername()) ? null : condition.getUsername());
+        key.setUsernamePrefix(isEmpty(condition.getUsernamePrefix()) ? null : condition.getUsernamePrefix());
+        key.setUsernameContains(isEmpty(condition.getUsernameContains()) ? null : condition.getUsernameContains());
+        key.setTeamName(isEmpty(condition.getTeamName()) ? null : condition.getTeamName());
+        key.setAgeGoe(condition.getAgeGoe());
+        key.setAgeLoe(condition.getAgeLoe());
+        return key;
+    }
+
+    private static class Entry {
+        private final long count;
+        private final long expiresAt;
+
+        private Entry(long count, long expiresAt) {
+            this.count = count;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.joonsang.example.QueryDSL.repository;
+
+import com.joonsang.example.QueryDSL.dto.MemberSearchCondition;
+import com.querydsl.jpa.impl.JPAQuery;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+
+import static com.joonsang.example.QueryDSL.entity.QMember.member;
+import static com.joonsang.example.QueryDSL.repository.MemberPredicates.*;
+
+/**
+ * 카운트 쿼리 최적화
+ * - member 기준 left join 은 카운트를 바꾸지 못하므로 조인 자체를 제거
+ * - 팀 조건은 팀명 -> 팀 ID (2차 캐시) 로 바꿔서 member.team_id 로 비교하므로 역시 조인이 필요 없다.
+ * - 엔티티 대신 member.id.count() 만 조회
+ */
+class MemberCountQueryPlanner {
+
+    private final JPAQueryFactory jpaQueryFactory;
+    private final TeamRepository teamRepository;
+
+    MemberCountQueryPlanner(JPAQueryFactory jpaQueryFactory, TeamRepository teamRepository) {
+        this.jpaQueryFactory = jpaQueryFactory;
+        this.teamRepository = teamRepository;
+    }
+
+    JPAQuery<Long> plan(MemberSearchCondition condition) {
+        return jpaQueryFactory
+                .select(member.id.count())
+                .from(member)
+                .where(
+                        usernameEq(condition.getUsername()),
+                        usernameStartsWith(condition.getUsernamePrefix()),
+                        usernameContains(condition.getUsernameContains()),
+                        teamIdIn(teamRepository.resolveTeamIds(condition.getTeamName())),
+                        ageGoe(condition.getAgeGoe()),
+                        ageLoe(condition.getAgeLoe()));
+    }
+
+    long count(MemberSearchCondition condition) {
+        Long count = plan(condition).fetchOne();
+        return count == null ? 0 : count;
+    }
+}
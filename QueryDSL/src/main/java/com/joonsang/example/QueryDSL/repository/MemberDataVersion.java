@@ -0,0 +1,46 @@
+package com.joonsang.example.QueryDSL.repository;
+
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Member / Team 데이터 버전 (조건부 GET 의 ETag)
+ * - Last-Modified 는 쓰지 않는다. HTTP 날짜는 초 단위라 같은 초 안의 변경을 구분하지 못하고 If-Modified-Since 에 이전 응답으로 304 가 나간다.
+ * - 변경이 커밋된 후에 올린다. (MemberChangeListener)
+ *   커밋 전에 올리면, 아직 이전 데이터를 읽은 응답이 새 버전으로 태그되어 계속 재사용될 수 있다.
+ * - 시작 시각(ms)에서 시작하므로 재시작 후에도 이전 ETag 와 겹치지 않는다.
+ * - 이 애플리케이션 인스턴스에서 커밋된 변경만 알 수 있다.
+ * - replica 를 쓰는 경우, 복제 지연 중에 읽은 결과가 새 버전으로 태그될 수 있으므로 X-Read-Consistency: primary 로 조회
+ */
+@Component
+public class MemberDataVersion {
+
+    private final AtomicReference<Version> current;
+
+    public MemberDataVersion() {
+        this.current = new AtomicReference<>(new Version(System.currentTimeMillis()));
+    }
+
+    public Version current() {
+        return current.get();
+    }
+
+    void increment() {
+        current.updateAndGet(version -> new Version(version.value + 1));
+    }
+
+    public static class Version {
+        private final long value;
+
+        private Version(long value) {
+            this.value = value;
+        }
+
+        public long getValue() { return value; }
+
+        public String getETag() {
+            return "\"" + value + "\"";
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.joonsang.example.QueryDSL.repository;
+
+import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.jpa.JPAExpressions;
+
+import java.util.List;
+import java.util.Set;
+
+import static com.joonsang.example.QueryDSL.entity.QMember.member;
+import static com.joonsang.example.QueryDSL.entity.QMemberUsernameGram.memberUsernameGram;
+import static org.springframework.util.ObjectUtils.isEmpty;
+
+/**
+ * MemberSearchCondition 의 동적 Where 절 파라미터
+ * - 조건이 없으면 null 을 반환하고, where() 는 null 을 무시한다.
+ * - 팀명 조건은 TeamRepository.resolveTeamIds() 로 팀 ID 로 바꿔서 member.team_id 로 비교 (team 조인 불필요)
+ * - 회원명 시작 문자열은 like 대신 범위 비교 (idx_member_username 범위 스캔)
+ * - 회원명 포함 문자열은 3-gram 색인(member_username_gram)으로 후보를 좁힌 뒤 like 로 확인 (3글자 미만은 like 스캔)
+ */
+final class MemberPredicates {
+
+    private MemberPredicates() {
+    }
+
+    static BooleanExpression usernameEq(String username) {    return isEmpty(username) ? null : member.username.eq(username); }
+    static BooleanExpression usernameStartsWith(String prefix) {    return isEmpty(prefix) ? null : member.username.goe(prefix).and(member.username.lt(MemberUsernameGrams.prefixUpperBound(prefix))); }
+    static BooleanExpression teamIdIn(List<Long> teamIds) {    return teamIds == null ? null : member.team.id.in(teamIds); }
+    static BooleanExpression ageGoe(Integer ageGoe) {    return ageGoe == null ? null : member.age.goe(ageGoe); }
+    static BooleanExpression ageLoe(Integer ageLoe) {    return ageLoe == null ? null : member.age.loe(ageLoe); }
+    static BooleanExpression memberIdGt(Long memberId) {    return memberId == null ? null : member.id.gt(memberId); }
+
+    static BooleanExpression usernameContains(String keyword) {
+        if (isEmpty(keyword)) {
+            return null;
+        }
+
+        BooleanExpression like = member.username.like("%" + MemberUsernameGrams.escapeLike(keyword) + "%", '!');
+        Set<String> grams = MemberUsernameGrams.of(keyword);
+        if (grams.isEmpty()) {
+            return like;
+        }
+
+        return member.id.in(
+                JPAExpressions
+                        .select(memberUsernameGram.memberId)
+                        .from(memberUsernameGram)
+                        .where(memberUsernameGram.gram.in(grams))
+                        .groupBy(memberUsernameGram.memberId)
+                        .having(memberUsernameGram.gram.count().eq((long) grams.size())))
+                .and(like);
+    }
+}
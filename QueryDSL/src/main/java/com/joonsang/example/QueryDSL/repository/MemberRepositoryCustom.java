@@ -1,18 +1,28 @@
 package com.joonsang.example.QueryDSL.repository;
 
+import com.joonsang.example.QueryDSL.dto.MemberCursorPage;
 import com.joonsang.example.QueryDSL.dto.MemberSearchCondition;
 import com.joonsang.example.QueryDSL.dto.MemberTeamDto;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface MemberRepositoryCustom {
     public List<MemberTeamDto> searchByBuilder(MemberSearchCondition condition);
     public List<MemberTeamDto> search(MemberSearchCondition condition);
+    public List<MemberTeamDto> search(MemberSearchCondition condition, int maxRows);
     Page<MemberTeamDto> searchPageSimple(MemberSearchCondition condition, Pageable pageable);
     Page<MemberTeamDto> searchPageSimple2(MemberSearchCondition condition, Pageable pageable);
     Page<MemberTeamDto> searchPageSimple3(MemberSearchCondition condition, Pageable pageable);
     Page<MemberTeamDto> searchPageComplex(MemberSearchCondition condition, Pageable pageable);
+    MemberCursorPage searchByCursor(MemberSearchCondition condition, String cursor, int size);
+    Stream<MemberTeamDto> searchStream(MemberSearchCondition condition, int fetchSize);
+    Slice<MemberTeamDto> searchSlice(MemberSearchCondition condition, Pageable pageable);
+    Long estimateCount(MemberSearchCondition condition);
+    List<MemberTeamDto> lookupByIds(List<Long> ids);
+    List<MemberTeamDto> lookupByUsernames(List<String> usernames);
 
 }
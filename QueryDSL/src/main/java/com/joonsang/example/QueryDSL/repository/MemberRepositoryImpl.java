@@ -1,32 +1,81 @@
 package com.joonsang.example.QueryDSL.repository;
 
+import com.joonsang.example.QueryDSL.datasource.StatementScope;
+import com.joonsang.example.QueryDSL.dto.MemberCursorPage;
 import com.joonsang.example.QueryDSL.dto.MemberSearchCondition;
 import com.joonsang.example.QueryDSL.dto.MemberTeamDto;
 import com.joonsang.example.QueryDSL.dto.QMemberTeamDto;
-import com.joonsang.example.QueryDSL.entity.Member;
+import com.joonsang.example.QueryDSL.monitor.CountQueryMetrics;
 import com.querydsl.core.BooleanBuilder;
-import com.querydsl.core.QueryResults;
-import com.querydsl.core.types.dsl.BooleanExpression;
+import com.mysema.commons.lang.CloseableIterator;
 import com.querydsl.jpa.impl.JPAQuery;
 import com.querydsl.jpa.impl.JPAQueryFactory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.hibernate.annotations.QueryHints;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import static com.joonsang.example.QueryDSL.entity.QMember.member;
 import static com.joonsang.example.QueryDSL.entity.QTeam.team;
-import static org.springframework.util.ObjectUtils.isEmpty;
+import static com.joonsang.example.QueryDSL.repository.MemberPredicates.*;
 import static org.springframework.util.StringUtils.hasText;
 
+/**
+ * 회원 검색 구현
+ * - 파티션 모드(app.datasource.search-partitions.enabled = true)에서는 search / searchPage* 를 PartitionedMemberSearch 로 넘긴다.
+ *   파티션은 원본 member 테이블을 커밋 후 복제한 것(PartitionedMemberMirror)이라 다른 조회와 같은 데이터를 본다.
+ * - 쓰기 트랜잭션 안에서는 아직 파티션에 반영되지 않은 변경을 봐야 하므로 원본에서 검색
+ * - Slice, 커서, 스트리밍/내보내기, 일괄 조회, 팀 목록, 팀 통계, admission 추정치는 파티션 모드에서도 원본 member 테이블
+ */
 public class MemberRepositoryImpl implements MemberRepositoryCustom {
 
     private final JPAQueryFactory jpaQueryFactory;
+    private final ThreadPoolTaskExecutor searchQueryExecutor;
+    private final MemberCountCache memberCountCache;
+    private final MemberCountQueryPlanner countQueryPlanner;
+    private final MemberSearchTemplateCache searchTemplateCache;
+    private final TeamRepository teamRepository;
+    private final CountQueryMetrics countQueryMetrics;
+    private final MemberRowCountEstimator rowCountEstimator;
+    private final MemberBatchLookup batchLookup;
+    private final PartitionedMemberSearch partitionedSearch;
 
-    public MemberRepositoryImpl(JPAQueryFactory jpaQueryFactory) {
+    public MemberRepositoryImpl(JPAQueryFactory jpaQueryFactory,
+                                @Qualifier("searchQueryExecutor") ThreadPoolTaskExecutor searchQueryExecutor,
+                                MemberCountCache memberCountCache,
+                                MemberSearchTemplateCache searchTemplateCache,
+                                TeamRepository teamRepository,
+                                CountQueryMetrics countQueryMetrics,
+                                MemberRowCountEstimator rowCountEstimator,
+                                MemberBatchLookup batchLookup,
+                                ObjectProvider<PartitionedMemberSearch> partitionedSearch) {
         this.jpaQueryFactory = jpaQueryFactory;
+        this.searchQueryExecutor = searchQueryExecutor;
+        this.memberCountCache = memberCountCache;
+        this.countQueryPlanner = new MemberCountQueryPlanner(jpaQueryFactory, teamRepository);
+        this.searchTemplateCache = searchTemplateCache;
+        this.teamRepository = teamRepository;
+        this.countQueryMetrics = countQueryMetrics;
+        this.rowCountEstimator = rowCountEstimator;
+        this.batchLookup = batchLookup;
+        this.partitionedSearch = partitionedSearch.getIfAvailable();
     }
 
     /**
@@ -40,6 +89,14 @@ public class MemberRepositoryImpl implements MemberRepositoryCustom {
             builder.and(member.username.eq(condition.getUsername()));
         }
 
+        if (hasText(condition.getUsernamePrefix())) {
+            builder.and(usernameStartsWith(condition.getUsernamePrefix()));
+        }
+
+        if (hasText(condition.getUsernameContains())) {
+            builder.and(usernameContains(condition.getUsernameContains()));
+        }
+
         if (hasText(condition.getTeamName())) {
             builder.and(team.name.eq(condition.getTeamName()));
         }
@@ -67,42 +124,47 @@ public class MemberRepositoryImpl implements MemberRepositoryCustom {
 
     /**
      * 동적 쿼리와 성능 최적화
-     * - Builder 사용
+     * - Where 절 파라미터 사용
+     * - 조건의 모양별로 직렬화 해둔 JPQL 템플릿에 값만 바인딩 (MemberSearchTemplateCache)
+     * - searchByBuilder 는 비교 기준으로 매번 쿼리를 새로 만드는 방식 그대로 둠
      */
     @Override
     public List<MemberTeamDto> search(MemberSearchCondition condition) {
-        return jpaQueryFactory
-                .select(new QMemberTeamDto(
-                        member.id.as("memberId"),
-                        member.username,
-                        member.age,
-                        team.id.as("teamId"),
-                        team.name.as("teamName")))
-                .from(member)
-                .leftJoin(member.team, team)
-                .where(
-                        usernameEq(condition.getUsername()),
-                        teamNameEq(condition.getTeamName()),
-                        ageGoe(condition.getAgeGoe()),
-                        ageLoe(condition.getAgeLoe()))
-                .fetch();
+        if (usePartitions()) {
+            return partitionedSearch.search(condition, null);
+        }
+        return searchTemplateCache.fetch(condition);
     }
 
-    private BooleanExpression usernameEq(String username) {    return isEmpty(username) ? null : member.username.eq(username); }
-    private BooleanExpression teamNameEq(String teamName) {    return isEmpty(teamName) ? null : team.name.eq(teamName); }
-    private BooleanExpression ageGoe(Integer ageGoe) {    return ageGoe == null ? null : member.age.goe(ageGoe); }
-    private BooleanExpression ageLoe(Integer ageLoe) {    return ageLoe == null ? null : member.age.loe(ageLoe); }
-
+    /**
+     * 최대 건수 제한 검색
+     * - maxRows + 1 건까지만 조회해서, 넘으면 RowLimitExceededException (전체를 읽지 않는다.)
+     */
+    @Override
+    public List<MemberTeamDto> search(MemberSearchCondition condition, int maxRows) {
+        List<MemberTeamDto> result = usePartitions()
+                ? partitionedSearch.search(condition, maxRows + 1L)
+                : searchTemplateCache.fetch(condition, maxRows + 1);
+        if (result.size() > maxRows) {
+            throw new RowLimitExceededException(maxRows);
+        }
+        return result;
+    }
 
     /**
-     * 단순한 페이징, fetchResults() 사용
-     * - Querydsl 이 제공하는 fetchResults()를 사용하면 내용과 전체 카운트를 한번에 조회할 수 있다.
-     * - 실제 쿼리는 2번 호출
+     * 단순한 페이징
+     * - 원래는 Querydsl 이 제공하는 fetchResults()로 내용과 전체 카운트를 한번에 조회했지만,
+     *   fetchResults()의 카운트는 캐시할 수 없어서 리스트 쿼리와 카운트(MemberCountCache)로 나눔
+     * - 실제 쿼리는 최대 2번 호출 (카운트 캐시 hit 시 1번)
      **/
     @Override
     public Page<MemberTeamDto> searchPageSimple(MemberSearchCondition condition, Pageable pageable) {
-        // 리스트 쿼리 + 카운트 쿼리
-        QueryResults<MemberTeamDto> results = jpaQueryFactory
+        if (usePartitions()) {
+            return partitionedSearch.searchPage(condition, pageable);
+        }
+
+        // 리스트 쿼리
+        List<MemberTeamDto> content = jpaQueryFactory
                 .select(
                         new QMemberTeamDto(
                         member.id.as("memberId"),
@@ -114,17 +176,18 @@ public class MemberRepositoryImpl implements MemberRepositoryCustom {
                 .leftJoin(member.team, team)
                 .where(
                         usernameEq(condition.getUsername()),
-                        teamNameEq(condition.getTeamName()),
+                        usernameStartsWith(condition.getUsernamePrefix()),
+                        usernameContains(condition.getUsernameContains()),
+                        teamIdIn(teamRepository.resolveTeamIds(condition.getTeamName())),
                         ageGoe(condition.getAgeGoe()),
                         ageLoe(condition.getAgeLoe()))
-//                .orderBy()                                /* fetchResult()는 카운트 쿼리 실행시 필요없는 order by는 제거 */
+                .orderBy(MemberSortOrders.of(pageable.getSort()))
                 .offset(pageable.getOffset())
                 .limit(pageable.getPageSize())
-                .fetchResults();
-
+                .fetch();
 
-        List<MemberTeamDto> content = results.getResults();
-        long total = results.getTotal();
+        // 카운트 쿼리
+        long total = getCnt(condition);
         return new PageImpl<>(content, pageable, total);
     }
 
@@ -135,6 +198,10 @@ public class MemberRepositoryImpl implements MemberRepositoryCustom {
      **/
     @Override
     public Page<MemberTeamDto> searchPageSimple2(MemberSearchCondition condition, Pageable pageable) {
+        if (usePartitions()) {
+            return partitionedSearch.searchPage(condition, pageable);
+        }
+
         // 리스트 쿼리
         List<MemberTeamDto> result = getMemberTeamDtos(condition, pageable);
 
@@ -150,40 +217,41 @@ public class MemberRepositoryImpl implements MemberRepositoryCustom {
      **/
     @Override
     public Page<MemberTeamDto> searchPageSimple3(MemberSearchCondition condition, Pageable pageable) {
+        if (usePartitions()) {
+            return partitionedSearch.searchPage(condition, pageable);
+        }
+
         // 리스트 쿼리
         List<MemberTeamDto> result = getMemberTeamDtos(condition, pageable);
 
-        // 카운트 쿼리
-        JPAQuery<Member> countQuery = jpaQueryFactory
-                .select(member)
-                .from(member)
-                .leftJoin(member.team, team)
-                .where(
-                        usernameEq(condition.getUsername()),
-                        teamNameEq(condition.getTeamName()),
-                        ageGoe(condition.getAgeGoe()),
-                        ageLoe(condition.getAgeLoe())
-                );
+        // 카운트 쿼리 (불필요한 조인 제거, MemberCountQueryPlanner)
+        JPAQuery<Long> countQuery = countQueryPlanner.plan(condition);
 
         // 시작 페이지거나 마지막 페이지라면? 카운트 쿼리를 실행을 안함으로서 최적화 시킴
-        return PageableExecutionUtils.getPage(result, pageable, () -> countQuery.fetchCount());
+        return countQueryMetrics.getPage(result, pageable,
+                () -> memberCountCache.getCount(condition, () -> {
+                    Long count = countQuery.fetchOne();
+                    return count == null ? 0 : count;
+                }));
+    }
+
+    private boolean usePartitions() {
+        if (partitionedSearch == null) {
+            return false;
+        }
+        return !TransactionSynchronizationManager.isActualTransactionActive()
+                || TransactionSynchronizationManager.isCurrentTransactionReadOnly();
     }
 
     private long getCnt(MemberSearchCondition condition) {
-        long cnt = jpaQueryFactory
-                .select(member)
-                .from(member)
-                .leftJoin(member.team, team)
-                .where(
-                        usernameEq(condition.getUsername()),
-                        teamNameEq(condition.getTeamName()),
-                        ageGoe(condition.getAgeGoe()),
-                        ageLoe(condition.getAgeLoe())
-                ).fetchCount();
-        return cnt;
+        return memberCountCache.getCount(condition, () -> countQueryPlanner.count(condition));
     }
 
     private List<MemberTeamDto> getMemberTeamDtos(MemberSearchCondition condition, Pageable pageable) {
+        return getMemberTeamDtos(condition, pageable.getOffset(), pageable.getPageSize(), pageable.getSort());
+    }
+
+    private List<MemberTeamDto> getMemberTeamDtos(MemberSearchCondition condition, long offset, long limit, Sort sort) {
         List<MemberTeamDto> result = jpaQueryFactory
                 .select(
                         new QMemberTeamDto(
@@ -196,11 +264,14 @@ public class MemberRepositoryImpl implements MemberRepositoryCustom {
                 .leftJoin(member.team, team)
                 .where(
                         usernameEq(condition.getUsername()),
-                        teamNameEq(condition.getTeamName()),
+                        usernameStartsWith(condition.getUsernamePrefix()),
+                        usernameContains(condition.getUsernameContains()),
+                        teamIdIn(teamRepository.resolveTeamIds(condition.getTeamName())),
                         ageGoe(condition.getAgeGoe()),
                         ageLoe(condition.getAgeLoe()))
-                .offset(pageable.getOffset())
-                .limit(pageable.getPageSize())
+                .orderBy(MemberSortOrders.of(sort))
+                .offset(offset)
+                .limit(limit)
                 .fetch();
         return result;
     }
@@ -208,9 +279,163 @@ public class MemberRepositoryImpl implements MemberRepositoryCustom {
 
     /**
      * 데이터 내용과 전체 카운트를 별도로 조회
+     * - 카운트 쿼리는 searchQueryExecutor 쓰레드(별도 커넥션)에서, 리스트 쿼리는 호출 쓰레드에서 동시에 실행
+     * - 시작 페이지거나 마지막 페이지라서 카운트가 필요 없으면, 카운트 쿼리를 취소
+     *   아직 시작 전이면 실행하지 않고, 실행 중이면 카운트 쿼리만의 StatementScope 로 JDBC Statement.cancel()
+     *   (쓰레드 인터럽트로는 JDBC 호출이 멈추지 않는다)
+     * - 카운트 쿼리는 호출 측 트랜잭션 밖에서 실행되므로, 커밋되지 않은 변경 내용은 카운트에 보이지 않는다.
      */
     @Override
     public Page<MemberTeamDto> searchPageComplex(MemberSearchCondition condition, Pageable pageable) {
-        return null;
+        if (usePartitions()) {
+            return partitionedSearch.searchPage(condition, pageable);
+        }
+
+        // 카운트 쿼리 (캐시에 있으면 그대로, 없으면 병렬)
+        Long cachedCount = memberCountCache.getIfPresent(condition);
+        StatementScope countScope = StatementScope.child(StatementScope.current());
+        Future<Long> countFuture = cachedCount != null
+                ? CompletableFuture.completedFuture(cachedCount)
+                : searchQueryExecutor.submit(countScope.wrap(() -> getCnt(condition)));
+
+        try {
+            // 리스트 쿼리
+            List<MemberTeamDto> content = getMemberTeamDtos(condition, pageable);
+            return countQueryMetrics.getPage(content, pageable, () -> awaitCount(countFuture));
+        } finally {
+            if (!countFuture.isDone()) {
+                countFuture.cancel(false);
+                countScope.cancel();
+            }
+        }
+    }
+
+    private long awaitCount(Future<Long> countFuture) {
+        try {
+            return countFuture.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("카운트 쿼리 대기 중 인터럽트 발생", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException("카운트 쿼리 실행 실패", e.getCause());
+        }
+    }
+
+
+    /**
+     * Slice 페이징 (무한 스크롤)
+     * - 전체 카운트 없이 pageSize + 1 건을 조회해서 다음 페이지 존재 여부만 판단
+     * - 중간 페이지에서도 카운트 쿼리를 실행하지 않는다.
+     */
+    @Override
+    public Slice<MemberTeamDto> searchSlice(MemberSearchCondition condition, Pageable pageable) {
+        List<MemberTeamDto> result = getMemberTeamDtos(condition, pageable.getOffset(), pageable.getPageSize() + 1, pageable.getSort());
+
+        boolean hasNext = result.size() > pageable.getPageSize();
+        List<MemberTeamDto> content = hasNext ? new ArrayList<>(result.subList(0, pageable.getPageSize())) : result;
+        return new SliceImpl<>(content, pageable, hasNext);
+    }
+
+    /**
+     * 대략적인 전체 건수 (정확한 count(*) 대신)
+     * - 카운트 캐시에 같은 조건의 값이 있으면 그 값
+     * - 조건이 없으면 테이블 통계의 행 수 추정치 (MemberRowCountEstimator)
+     * - 그 외에는 알 수 없으므로 null
+     */
+    @Override
+    public Long estimateCount(MemberSearchCondition condition) {
+        Long cached = memberCountCache.getIfPresent(condition);
+        if (cached != null) {
+            return cached;
+        }
+        return MemberSearchShape.of(condition) == 0 ? rowCountEstimator.estimate() : null;
+    }
+
+    /**
+     * 여러 회원 ID / 회원명으로 한번에 조회 (MemberBatchLookup)
+     * - 입력 순서 그대로, 없는 키 자리는 null
+     */
+    @Override
+    public List<MemberTeamDto> lookupByIds(List<Long> ids) {
+        return batchLookup.findByIds(ids);
+    }
+
+    @Override
+    public List<MemberTeamDto> lookupByUsernames(List<String> usernames) {
+        return batchLookup.findByUsernames(usernames);
+    }
+
+    /**
+     * 커서(Keyset) 페이징
+     * - offset 대신 마지막으로 본 member.id 이후부터 조회하기 때문에, 뒤 페이지로 갈수록 느려지지 않는다.
+     * - size + 1 건을 조회해서 다음 페이지 존재 여부를 판단 (카운트 쿼리 없음)
+     */
+    @Override
+    public MemberCursorPage searchByCursor(MemberSearchCondition condition, String cursor, int size) {
+        if (size < 1) {
+            throw new InvalidPageSizeException(size);
+        }
+
+        List<MemberTeamDto> result = jpaQueryFactory
+                .select(
+                        new QMemberTeamDto(
+                                member.id.as("memberId"),
+                                member.username,
+                                member.age,
+                                team.id.as("teamId"),
+                                team.name.as("teamName")))
+                .from(member)
+                .leftJoin(member.team, team)
+                .where(
+                        memberIdGt(MemberCursor.decode(cursor)),
+                        usernameEq(condition.getUsername()),
+                        usernameStartsWith(condition.getUsernamePrefix()),
+                        usernameContains(condition.getUsernameContains()),
+                        teamIdIn(teamRepository.resolveTeamIds(condition.getTeamName())),
+                        ageGoe(condition.getAgeGoe()),
+                        ageLoe(condition.getAgeLoe()))
+                .orderBy(member.id.asc())
+                .limit(size + 1L)
+                .fetch();
+
+        boolean hasNext = result.size() > size;
+        List<MemberTeamDto> content = hasNext ? new ArrayList<>(result.subList(0, size)) : result;
+        String nextCursor = hasNext ? MemberCursor.encode(content.get(content.size() - 1).getMemberId()) : null;
+        return new MemberCursorPage(content, nextCursor, hasNext);
+    }
+
+    /**
+     * 스트리밍 조회 (대용량 내보내기)
+     * - 결과를 List 로 모으지 않고 forward-only ScrollableResults 로 한 건씩 읽는다.
+     * - fetchSize 만큼씩 DB 에서 가져오므로, 결과 건수와 상관없이 메모리 사용량이 일정하다.
+     * - 커넥션을 계속 잡고 있으므로 반드시 트랜잭션 안에서 사용하고, 다 쓰면 close() 해야 한다. (try-with-resources)
+     */
+    @Override
+    public Stream<MemberTeamDto> searchStream(MemberSearchCondition condition, int fetchSize) {
+        CloseableIterator<MemberTeamDto> iterator = jpaQueryFactory
+                .select(
+                        new QMemberTeamDto(
+                                member.id.as("memberId"),
+                                member.username,
+                                member.age,
+                                team.id.as("teamId"),
+                                team.name.as("teamName")))
+                .from(member)
+                .leftJoin(member.team, team)
+                .where(
+                        usernameEq(condition.getUsername()),
+                        usernameStartsWith(condition.getUsernamePrefix()),
+                        usernameContains(condition.getUsernameContains()),
+                        teamIdIn(teamRepository.resolveTeamIds(condition.getTeamName())),
+                        ageGoe(condition.getAgeGoe()),
+                        ageLoe(condition.getAgeLoe()))
+                .setHint(QueryHints.FETCH_SIZE, fetchSize)
+                .iterate();
+
+        Spliterator<MemberTeamDto> spliterator = Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL);
+        return StreamSupport.stream(spliterator, false).onClose(iterator::close);
     }
 }
\ No newline at end of file
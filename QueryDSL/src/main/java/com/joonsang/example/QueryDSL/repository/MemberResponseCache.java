@@ -0,0 +1,95 @@
+package com.joonsang.example.QueryDSL.repository;
+
+import com.joonsang.example.QueryDSL.dto.MemberSearchCondition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * 목록 API 응답 캐시 (member.response-cache.enabled = true 일 때만)
+ * - 키 : API + 검색 조건 + 페이지, 값 : 조회 결과와 조회 직전의 데이터 버전
+ * - 데이터 버전(MemberDataVersion)이 바뀌면 그 이전에 담은 결과는 모두 무효 (TTL 없음)
+ * - 크기 제한(LRU)
+ */
+@Component
+public class MemberResponseCache {
+
+    private final boolean enabled;
+    private final int maxSize;
+    private final MemberDataVersion memberDataVersion;
+    private final Map<List<Object>, Entry> entries;
+
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+
+    public MemberResponseCache(MemberDataVersion memberDataVersion,
+                               @Value("${member.response-cache.enabled:false}") boolean enabled,
+                               @Value("${member.response-cache.max-size:200}") int maxSize) {
+        this.memberDataVersion = memberDataVersion;
+        this.enabled = enabled;
+        this.maxSize = maxSize;
+        this.entries = new LinkedHashMap<List<Object>, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<List<Object>, Entry> eldest) {
+                return size() > MemberResponseCache.this.maxSize;
+            }
+        };
+    }
+
+    /**
+     * @param version 요청 처리 시작 시 읽은 데이터 버전 (응답 ETag 와 같은 값)
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(String api, MemberSearchCondition condition, Pageable pageable,
+                     MemberDataVersion.Version version, Supplier<T> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+
+        List<Object> key = Arrays.asList(api, MemberCountCache.normalize(condition), pageable);
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry != null && entry.version == version.getValue()) {
+                hitCount.incrementAndGet();
+                return (T) entry.value;
+            }
+        }
+
+        missCount.incrementAndGet();
+        T value = loader.get();
+
+        // 조회하는 동안 버전이 바뀌었으면 담지 않는다.
+        if (memberDataVersion.current().getValue() == version.getValue()) {
+            synchronized (entries) {
+                entries.put(key, new Entry(version.getValue(), value));
+            }
+        }
+        return value;
+    }
+
+    public long getHitCount() { return hitCount.get(); }
+    public long getMissCount() { return missCount.get(); }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private static class Entry {
+        private final long version;
+        private final Object value;
+
+        private Entry(long version, Object value) {
+            this.version = version;
+            this.value = value;
+        }
+    }
+}
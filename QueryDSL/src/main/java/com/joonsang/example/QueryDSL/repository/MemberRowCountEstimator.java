@@ -0,0 +1,33 @@
+package com.joonsang.example.QueryDSL.repository;
+
+import org.springframework.stereotype.Component;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.List;
+
+/**
+ * member 테이블 행 수 추정치
+ * - count(*) 대신 H2 의 테이블 통계(INFORMATION_SCHEMA.TABLES.ROW_COUNT_ESTIMATE)를 읽는다. (스캔 없음)
+ * - 다른 DB 로 옮기면 해당 DB 의 통계 조회로 바꿔야 한다. (MySQL information_schema.TABLES.TABLE_ROWS, PostgreSQL pg_class.reltuples)
+ */
+@Component
+public class MemberRowCountEstimator {
+
+    private static final String SQL = "select ROW_COUNT_ESTIMATE from INFORMATION_SCHEMA.TABLES"
+            + " where TABLE_SCHEMA = 'PUBLIC' and TABLE_NAME = 'MEMBER'";
+
+    @PersistenceContext
+    EntityManager em;
+
+    /**
+     * @return 통계를 읽을 수 없으면 null
+     */
+    public Long estimate() {
+        List<?> rows = em.createNativeQuery(SQL).getResultList();
+        if (rows.isEmpty() || rows.get(0) == null) {
+            return null;
+        }
+        return ((Number) rows.get(0)).longValue();
+    }
+}
@@ -0,0 +1,203 @@
+package com.joonsang.example.QueryDSL.repository;
+
+import com.joonsang.example.QueryDSL.dto.MemberSearchCondition;
+import com.joonsang.example.QueryDSL.dto.TeamStatisticsDto;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static com.joonsang.example.QueryDSL.repository.MemberSearchShape.*;
+
+/**
+ * 검색 비용 기반 동시 실행 제어 (admission control)
+ * - 실행 전에 조건의 모양과 통계로 읽을 행 수를 추정
+ *   카운트 캐시(MemberCountCache)에 있으면 그 값, 없으면 전체 행 수(MemberRowCountEstimator) x 조건별 선택도
+ *   팀명 조건은 팀 통계(TeamStatistics)의 팀별 회원 수
+ * - 비용 = 내용 조회(추정 행 수, offset + size 이하) + 카운트 조회(Page 검색이고 카운트 캐시에 없으면 추정 행 수 전체)
+ * - 추정 행 수가 expensiveRows 이상이면 별도 레인에서 최대 expensiveConcurrency 개만 동시에 실행
+ *   자리가 없으면 queueSize 개까지 queueTimeoutMillis 동안 기다리고, 그래도 안되면 SearchRejectedException (429 + Retry-After)
+ * - 싼 검색은 제한 없이 바로 실행되므로, 비싼 검색이 몰려도 커넥션 풀을 다 차지하지 못한다.
+ * - repository.search.admission{lane=cheap|expensive, result=admitted|rejected}
+ */
+@Slf4j
+@Component
+public class MemberSearchAdmission {
+
+    /**
+     * 조건별 선택도 (통계가 없는 조건의 대략적인 비율)
+     */
+    private static final double USERNAME_SELECTIVITY = 0.0001;
+    private static final double USERNAME_PREFIX_SELECTIVITY = 0.01;
+    private static final double USERNAME_CONTAINS_SELECTIVITY = 0.05;
+    private static final double AGE_ONE_SIDED_SELECTIVITY = 0.5;
+    private static final int AGE_RANGE = 100;
+
+    /**
+     * 테이블 행 수 추정치는 자주 바뀌지 않으므로 잠깐 담아둔다.
+     */
+    private static final long TABLE_ROWS_TTL_MILLIS = 10_000;
+
+    private final MemberCountCache memberCountCache;
+    private final MemberRowCountEstimator rowCountEstimator;
+    private final TeamStatistics teamStatistics;
+    private final MeterRegistry registry;
+
+    private final long expensiveRows;
+    private final int queueSize;
+    private final long queueTimeoutMillis;
+    private final long retryAfterSeconds;
+    private final Semaphore expensiveLane;
+    private final AtomicInteger waiting = new AtomicInteger();
+
+    private volatile long tableRows = -1;
+    private volatile long tableRowsExpiresAt;
+
+    public MemberSearchAdmission(MemberCountCache memberCountCache,
+                                 MemberRowCountEstimator rowCountEstimator,
+                                 TeamStatistics teamStatistics,
+                                 MeterRegistry registry,
+                                 @Value("${member.admission.expensive-rows:5000}") long expensiveRows,
+                                 @Value("${member.admission.expensive-concurrency:2}") int expensiveConcurrency,
+                                 @Value("${member.admission.queue-size:10}") int queueSize,
+                                 @Value("${member.admission.queue-timeout-ms:1000}") long queueTimeoutMillis,
+                                 @Value("${member.admission.retry-after-seconds:1}") long retryAfterSeconds) {
+        this.memberCountCache = memberCountCache;
+        this.rowCountEstimator = rowCountEstimator;
+        this.teamStatistics = teamStatistics;
+        this.registry = registry;
+        this.expensiveRows = expensiveRows;
+        this.queueSize = queueSize;
+        this.queueTimeoutMillis = queueTimeoutMillis;
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.expensiveLane = new Semaphore(expensiveConcurrency, true);
+    }
+
+    /**
+     * @param limit 읽을 최대 행 수 (페이징이면 offset + size), 제한이 없으면 null
+     */
+    public <T> T execute(MemberSearchCondition condition, Long limit, Supplier<T> search) {
+        return execute(condition, limit, false, search);
+    }
+
+    /**
+     * @param counted 전체 카운트도 조회하는 검색(Page)인지
+     */
+    public <T> T execute(MemberSearchCondition condition, Long limit, boolean counted, Supplier<T> search) {
+        long cost = cost(condition, limit, counted);
+
+        if (cost < expensiveRows) {
+            record("cheap", "admitted");
+            return search.get();
+        }
+
+        acquire(condition, cost);
+        try {
+            record("expensive", "admitted");
+            return search.get();
+        } finally {
+            expensiveLane.release();
+        }
+    }
+
+    private void acquire(MemberSearchCondition condition, long cost) {
+        if (expensiveLane.tryAcquire()) {
+            return;
+        }
+
+        if (waiting.incrementAndGet() > queueSize) {
+            waiting.decrementAndGet();
+            reject(condition, cost);
+        }
+
+        try {
+            if (!expensiveLane.tryAcquire(queueTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                reject(condition, cost);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("검색 실행 대기 중 인터럽트 발생", e);
+        } finally {
+            waiting.decrementAndGet();
+        }
+    }
+
+    private void reject(MemberSearchCondition condition, long cost) {
+        record("expensive", "rejected");
+        log.warn("search rejected. shape={}, estimatedRows={}", MemberSearchShape.name(MemberSearchShape.of(condition)), cost);
+        throw new SearchRejectedException(retryAfterSeconds);
+    }
+
+    /**
+     * 검색 한번에 읽게 될 행 수
+     * - 카운트 쿼리는 페이지 크기와 상관없이 조건에 맞는 행을 모두 읽는다. (첫/마지막 페이지라 생략될지는 실행 전에 알 수 없음)
+     */
+    long cost(MemberSearchCondition condition, Long limit, boolean counted) {
+        long estimate = estimateRows(condition);
+        long content = limit == null ? estimate : Math.min(estimate, limit);
+        if (counted && memberCountCache.getIfPresent(condition) == null) {
+            return content + estimate;
+        }
+        return content;
+    }
+
+    /**
+     * 검색 조건으로 읽게 될 행 수 추정
+     */
+    public long estimateRows(MemberSearchCondition condition) {
+        Long cached = memberCountCache.getIfPresent(condition);
+        if (cached != null) {
+            return cached;
+        }
+
+        int shape = MemberSearchShape.of(condition);
+        double rows = has(shape, TEAM_NAME) ? teamMembers(condition.getTeamName()) : tableRows();
+
+        if (has(shape, USERNAME)) rows *= USERNAME_SELECTIVITY;
+        if (has(shape, USERNAME_PREFIX)) rows *= USERNAME_PREFIX_SELECTIVITY;
+        if (has(shape, USERNAME_CONTAINS)) rows *= USERNAME_CONTAINS_SELECTIVITY;
+        rows *= ageSelectivity(condition.getAgeGoe(), condition.getAgeLoe());
+
+        return Math.round(rows);
+    }
+
+    private long teamMembers(String teamName) {
+        long count = 0;
+        for (TeamStatisticsDto team : teamStatistics.findAll()) {
+            if (teamName.equals(team.getTeamName())) {
+                count += team.getCount();
+            }
+        }
+        return count;
+    }
+
+    private static double ageSelectivity(Integer ageGoe, Integer ageLoe) {
+        if (ageGoe != null && ageLoe != null) {
+            return Math.max(0, Math.min(AGE_RANGE, ageLoe - ageGoe + 1)) / (double) AGE_RANGE;
+        }
+        return ageGoe != null || ageLoe != null ? AGE_ONE_SIDED_SELECTIVITY : 1.0;
+    }
+
+    private long tableRows() {
+        long now = System.currentTimeMillis();
+        if (tableRows < 0 || tableRowsExpiresAt <= now) {
+            Long estimate = rowCountEstimator.estimate();
+            tableRows = estimate == null ? 0 : estimate;
+            tableRowsExpiresAt = now + TABLE_ROWS_TTL_MILLIS;
+        }
+        return tableRows;
+    }
+
+    private void record(String lane, String result) {
+        registry.counter("repository.search.admission", "lane", lane, "result", result).increment();
+    }
+
+    public int availableExpensiveSlots() {
+        return expensiveLane.availablePermits();
+    }
+}
@@ -0,0 +1,117 @@
+package com.joonsang.example.QueryDSL.repository;
+
+import com.joonsang.example.QueryDSL.datasource.DataSourceRouting;
+import com.joonsang.example.QueryDSL.dto.MemberSearchCondition;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * 같은 검색 요청 합치기 (single-flight)
+ * - 키 : API + 검색 조건 + 페이지 + 데이터 버전 (+ primary 강제 여부)
+ * - 같은 키의 조회가 이미 실행 중이면 DB 를 다시 조회하지 않고 그 결과를 같이 받는다. (먼저 온 요청 쓰레드에서 실행)
+ * - 실행 중인 조회를 timeoutMillis 이상 기다리면 더 기다리지 않고 직접 조회
+ * - 데이터 버전이 키에 들어가므로, 변경이 커밋된 뒤에 온 요청은 그 전에 시작된 조회에 합쳐지지 않는다.
+ * - 쓰기 트랜잭션 안에서는 자기 자신의 변경 내용이 보여야 하므로 합치지 않는다.
+ * - 실행 결과는 합쳐진 요청들이 같은 객체를 공유하므로 변경하면 안 된다.
+ * - repository.search.coalescing{result=executed|coalesced|timeout}
+ */
+@Component
+public class MemberSearchCoalescer {
+
+    private final boolean enabled;
+    private final long timeoutMillis;
+    private final MemberDataVersion memberDataVersion;
+    private final ConcurrentMap<List<Object>, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    private final Counter executed;
+    private final Counter coalesced;
+    private final Counter timeout;
+
+    public MemberSearchCoalescer(MemberDataVersion memberDataVersion,
+                                 MeterRegistry registry,
+                                 @Value("${member.coalescing.enabled:true}") boolean enabled,
+                                 @Value("${member.coalescing.timeout-ms:3000}") long timeoutMillis) {
+        this.memberDataVersion = memberDataVersion;
+        this.enabled = enabled;
+        this.timeoutMillis = timeoutMillis;
+        this.executed = counter(registry, "executed");
+        this.coalesced = counter(registry, "coalesced");
+        this.timeout = counter(registry, "timeout");
+    }
+
+    private static Counter counter(MeterRegistry registry, String result) {
+        return Counter.builder("repository.search.coalescing")
+                .description("같은 검색 요청 합치기")
+                .tag("result", result)
+                .register(registry);
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String api, MemberSearchCondition condition, Pageable pageable, Supplier<T> loader) {
+        if (!enabled || isWriteTransaction()) {
+            return loader.get();
+        }
+
+        List<Object> key = Arrays.asList(api, MemberCountCache.normalize(condition), pageable,
+                memberDataVersion.current().getValue(), DataSourceRouting.isForcePrimary());
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> running = inFlight.putIfAbsent(key, flight);
+
+        if (running == null) {
+            executed.increment();
+            try {
+                T value = loader.get();
+                flight.complete(value);
+                return value;
+            } catch (RuntimeException | Error e) {
+                flight.completeExceptionally(e);
+                throw e;
+            } finally {
+                inFlight.remove(key, flight);
+            }
+        }
+
+        try {
+            Object value = running.get(timeoutMillis, TimeUnit.MILLISECONDS);
+            coalesced.increment();
+            return (T) value;
+        } catch (TimeoutException e) {
+            timeout.increment();
+            return loader.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("검색 결과 대기 중 인터럽트 발생", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException("검색 실패", e.getCause());
+        }
+    }
+
+    public double getCoalescedCount() { return coalesced.count(); }
+    public double getTimeoutCount() { return timeout.count(); }
+
+    public int inFlightSize() {
+        return inFlight.size();
+    }
+
+    private boolean isWriteTransaction() {
+        return TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+}
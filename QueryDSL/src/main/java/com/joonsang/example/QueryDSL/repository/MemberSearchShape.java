@@ -0,0 +1,54 @@
+package com.joonsang.example.QueryDSL.repository;
+
+import com.joonsang.example.QueryDSL.dto.MemberSearchCondition;
+
+import java.util.StringJoiner;
+
+import static org.springframework.util.ObjectUtils.isEmpty;
+
+/**
+ * 검색 조건의 "모양"
+ * - 값은 무시하고 어떤 조건이 있는지만 비트로 표현 (조건 6개 -> 64가지)
+ * - 모양이 같으면 생성되는 JPQL 도 같다.
+ */
+public final class MemberSearchShape {
+
+    public static final int USERNAME = 1;
+    public static final int TEAM_NAME = 1 << 1;
+    public static final int AGE_GOE = 1 << 2;
+    public static final int AGE_LOE = 1 << 3;
+    public static final int USERNAME_PREFIX = 1 << 4;
+    public static final int USERNAME_CONTAINS = 1 << 5;
+
+    private MemberSearchShape() {
+    }
+
+    public static int of(MemberSearchCondition condition) {
+        int shape = 0;
+        if (!isEmpty(condition.getUsername())) shape |= USERNAME;
+        if (!isEmpty(condition.getTeamName())) shape |= TEAM_NAME;
+        if (condition.getAgeGoe() != null) shape |= AGE_GOE;
+        if (condition.getAgeLoe() != null) shape |= AGE_LOE;
+        if (!isEmpty(condition.getUsernamePrefix())) shape |= USERNAME_PREFIX;
+        if (!isEmpty(condition.getUsernameContains())) shape |= USERNAME_CONTAINS;
+        return shape;
+    }
+
+    public static boolean has(int shape, int flag) {
+        return (shape & flag) != 0;
+    }
+
+    /**
+     * @return 예) "username+ageGoe", 조건이 없으면 "none"
+     */
+    public static String name(int shape) {
+        StringJoiner joiner = new StringJoiner("+");
+        if (has(shape, USERNAME)) joiner.add("username");
+        if (has(shape, TEAM_NAME)) joiner.add("teamName");
+        if (has(shape, AGE_GOE)) joiner.add("ageGoe");
+        if (has(shape, AGE_LOE)) joiner.add("ageLoe");
+        if (has(shape, USERNAME_PREFIX)) joiner.add("usernamePrefix");
+        if (has(shape, USERNAME_CONTAINS)) joiner.add("usernameContains");
+        return shape == 0 ? "none" : joiner.toString();
+    }
+}
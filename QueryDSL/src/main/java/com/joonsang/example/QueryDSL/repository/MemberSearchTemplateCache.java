@@ -0,0 +1,214 @@
+package com.joonsang.example.QueryDSL.repository;
+
+import com.joonsang.example.QueryDSL.dto.MemberSearchCondition;
+import com.joonsang.example.QueryDSL.dto.MemberTeamDto;
+import com.joonsang.example.QueryDSL.dto.QMemberTeamDto;
+import com.querydsl.core.types.Ops;
+import com.querydsl.core.types.ParamExpression;
+import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.core.types.dsl.Expressions;
+import com.querydsl.core.types.dsl.Param;
+import com.querydsl.jpa.JPAExpressions;
+import com.querydsl.jpa.JPQLSerializer;
+import com.querydsl.jpa.impl.JPAProvider;
+import com.querydsl.jpa.impl.JPAQuery;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import com.querydsl.jpa.impl.JPAUtil;
+import org.springframework.stereotype.Component;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Query;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.joonsang.example.QueryDSL.entity.QMember.member;
+import static com.joonsang.example.QueryDSL.entity.QMemberUsernameGram.memberUsernameGram;
+import static com.joonsang.example.QueryDSL.entity.QTeam.team;
+import static com.joonsang.example.QueryDSL.repository.MemberSearchShape.*;
+
+/**
+ * 검색 쿼리 템플릿 캐시
+ * - 조건의 모양(MemberSearchShape) 별로 QueryDSL -> JPQL 직렬화를 한번만 하고, 값은 Param 으로 바인딩
+ * - JPQL 문자열이 항상 같으므로 Hibernate 의 HQL 파싱 결과(QueryPlanCache)도 재사용된다.
+ * - 팀명 조건은 팀 ID 목록(2차 캐시)으로 바꿔서 member.team_id in (...) 으로 비교
+ * - 회원명 포함 조건은 검색어가 3글자 이상이면 3-gram 색인 서브쿼리, 미만이면 like 만 사용하므로 템플릿을 따로 둔다.
+ */
+@Component
+public class MemberSearchTemplateCache {
+
+    static final Param<String> USERNAME_PARAM = new Param<>(String.class, "username");
+    @SuppressWarnings("rawtypes")
+    static final Param<Collection> TEAM_IDS_PARAM = new Param<>(Collection.class, "teamIds");
+    static final Param<Integer> AGE_GOE_PARAM = new Param<>(Integer.class, "ageGoe");
+    static final Param<Integer> AGE_LOE_PARAM = new Param<>(Integer.class, "ageLoe");
+    static final Param<String> USERNAME_PREFIX_PARAM = new Param<>(String.class, "usernamePrefix");
+    static final Param<String> USERNAME_PREFIX_END_PARAM = new Param<>(String.class, "usernamePrefixEnd");
+    static final Param<String> USERNAME_LIKE_PARAM = new Param<>(String.class, "usernameLike");
+    @SuppressWarnings("rawtypes")
+    static final Param<Collection> USERNAME_GRAMS_PARAM = new Param<>(Collection.class, "usernameGrams");
+    static final Param<Long> USERNAME_GRAM_COUNT_PARAM = new Param<>(Long.class, "usernameGramCount");
+
+    /**
+     * 템플릿 키에만 쓰는 비트 - 3글자 미만 포함 검색 (색인 없이 like)
+     */
+    private static final int USERNAME_CONTAINS_SCAN = 1 << 30;
+
+    private static final QMemberTeamDto PROJECTION = new QMemberTeamDto(
+            member.id.as("memberId"),
+            member.username,
+            member.age,
+            team.id.as("teamId"),
+            team.name.as("teamName"));
+
+    @PersistenceContext
+    EntityManager em;
+
+    private final JPAQueryFactory jpaQueryFactory;
+    private final TeamRepository teamRepository;
+    private final ConcurrentMap<Integer, QueryTemplate> templates = new ConcurrentHashMap<>();
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+
+    public MemberSearchTemplateCache(JPAQueryFactory jpaQueryFactory, TeamRepository teamRepository) {
+        this.jpaQueryFactory = jpaQueryFactory;
+        this.teamRepository = teamRepository;
+    }
+
+    public List<MemberTeamDto> fetch(MemberSearchCondition condition) {
+        return fetch(condition, null);
+    }
+
+    /**
+     * @param maxResults 최대 조회 건수 (setMaxResults, JPQL 은 그대로), null 이면 전체
+     */
+    public List<MemberTeamDto> fetch(MemberSearchCondition condition, Integer maxResults) {
+        List<Long> teamIds = teamRepository.resolveTeamIds(condition.getTeamName());
+        if (teamIds != null && teamIds.isEmpty()) {
+            // 없는 팀명이면 DB 까지 갈 필요 없음
+            return Collections.emptyList();
+        }
+
+        QueryTemplate template = template(templateKey(condition));
+
+        Query query = QueryTimeouts.apply(em.createQuery(template.jpql));
+        JPAUtil.setConstants(query, template.constantToLabel, bindings(condition, teamIds));
+        if (maxResults != null) {
+            query.setMaxResults(maxResults);
+        }
+
+        List<?> rows = query.getResultList();
+        List<MemberTeamDto> result = new ArrayList<>(rows.size());
+        for (Object row : rows) {
+            result.add(PROJECTION.newInstance((Object[]) row));
+        }
+        return result;
+    }
+
+    private QueryTemplate template(int shape) {
+        QueryTemplate template = templates.get(shape);
+        if (template != null) {
+            hitCount.incrementAndGet();
+            return template;
+        }
+
+        missCount.incrementAndGet();
+        return templates.computeIfAbsent(shape, this::compile);
+    }
+
+    private static int templateKey(MemberSearchCondition condition) {
+        int shape = MemberSearchShape.of(condition);
+        if (has(shape, USERNAME_CONTAINS) && MemberUsernameGrams.of(condition.getUsernameContains()).isEmpty()) {
+            shape |= USERNAME_CONTAINS_SCAN;
+        }
+        return shape;
+    }
+
+    private QueryTemplate compile(int shape) {
+        JPAQuery<MemberTeamDto> query = jpaQueryFactory
+                .select(PROJECTION)
+                .from(member)
+                .leftJoin(member.team, team)
+                .where(
+                        has(shape, USERNAME) ? member.username.eq(USERNAME_PARAM) : null,
+                        has(shape, USERNAME_PREFIX) ? member.username.goe(USERNAME_PREFIX_PARAM).and(member.username.lt(USERNAME_PREFIX_END_PARAM)) : null,
+                        has(shape, USERNAME_CONTAINS) ? usernameContains(has(shape, USERNAME_CONTAINS_SCAN)) : null,
+                        has(shape, TEAM_NAME) ? Expressions.booleanOperation(Ops.IN, member.team.id, TEAM_IDS_PARAM) : null,
+                        has(shape, AGE_GOE) ? member.age.goe(AGE_GOE_PARAM) : null,
+                        has(shape, AGE_LOE) ? member.age.loe(AGE_LOE_PARAM) : null);
+
+        JPQLSerializer serializer = new JPQLSerializer(JPAProvider.getTemplates(em), em);
+        serializer.serialize(query.getMetadata(), false, null);
+        return new QueryTemplate(serializer.toString(), new HashMap<>(serializer.getConstantToLabel()));
+    }
+
+    /**
+     * MemberPredicates.usernameContains() 와 같은 조건을 Param 으로
+     */
+    private static BooleanExpression usernameContains(boolean scan) {
+        BooleanExpression like = member.username.like(USERNAME_LIKE_PARAM, '!');
+        if (scan) {
+            return like;
+        }
+
+        return member.id.in(
+                JPAExpressions
+                        .select(memberUsernameGram.memberId)
+                        .from(memberUsernameGram)
+                        .where(Expressions.booleanOperation(Ops.IN, memberUsernameGram.gram, USERNAME_GRAMS_PARAM))
+                        .groupBy(memberUsernameGram.memberId)
+                        .having(memberUsernameGram.gram.count().eq(USERNAME_GRAM_COUNT_PARAM)))
+                .and(like);
+    }
+
+    private Map<ParamExpression<?>, Object> bindings(MemberSearchCondition condition, List<Long> teamIds) {
+        int shape = MemberSearchShape.of(condition);
+        Map<ParamExpression<?>, Object> params = new HashMap<>();
+        if (has(shape, USERNAME)) params.put(USERNAME_PARAM, condition.getUsername());
+        if (has(shape, USERNAME_PREFIX)) {
+            params.put(USERNAME_PREFIX_PARAM, condition.getUsernamePrefix());
+            params.put(USERNAME_PREFIX_END_PARAM, MemberUsernameGrams.prefixUpperBound(condition.getUsernamePrefix()));
+        }
+        if (has(shape, USERNAME_CONTAINS)) {
+            Set<String> grams = MemberUsernameGrams.of(condition.getUsernameContains());
+            params.put(USERNAME_LIKE_PARAM, "%" + MemberUsernameGrams.escapeLike(condition.getUsernameContains()) + "%");
+            if (!grams.isEmpty()) {
+                params.put(USERNAME_GRAMS_PARAM, grams);
+                params.put(USERNAME_GRAM_COUNT_PARAM, (long) grams.size());
+            }
+        }
+        if (has(shape, TEAM_NAME)) params.put(TEAM_IDS_PARAM, teamIds);
+        if (has(shape, AGE_GOE)) params.put(AGE_GOE_PARAM, condition.getAgeGoe());
+        if (has(shape, AGE_LOE)) params.put(AGE_LOE_PARAM, condition.getAgeLoe());
+        return params;
+    }
+
+    public long getHitCount() { return hitCount.get(); }
+    public long getMissCount() { return missCount.get(); }
+    public int size() { return templates.size(); }
+
+    /**
+     * @return 모양별 JPQL (확인용)
+     */
+    public String getJpql(MemberSearchCondition condition) {
+        return template(templateKey(condition)).jpql;
+    }
+
+    private static class QueryTemplate {
+        private final String jpql;
+        private final Map<Object, String> constantToLabel;
+
+        private QueryTemplate(String jpql, Map<Object, String> constantToLabel) {
+            this.jpql = jpql;
+            this.constantToLabel = constantToLabel;
+        }
+    }
+}
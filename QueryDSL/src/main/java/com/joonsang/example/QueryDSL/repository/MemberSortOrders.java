@@ -0,0 +1,63 @@
+package com.joonsang.example.QueryDSL.repository;
+
+import com.querydsl.core.types.Order;
+import com.querydsl.core.types.OrderSpecifier;
+import com.querydsl.core.types.dsl.ComparableExpressionBase;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.joonsang.example.QueryDSL.entity.QMember.member;
+import static com.joonsang.example.QueryDSL.entity.QTeam.team;
+
+/**
+ * Pageable 의 Sort -> QueryDSL OrderSpecifier
+ * - 허용된 속성만 정렬 가능 (인덱스로 정렬할 수 있는 컬럼), 그 외는 UnsupportedSortException (400)
+ *   username -> idx_member_username (username, member_id)
+ *   age      -> idx_member_age (age, member_id)
+ *   teamName -> idx_team_name (name), 팀명 조건이 있으면 팀이 하나라 사실상 member_id 정렬
+ *   id       -> PK
+ * - 항상 마지막에 member_id 를 붙여서 정렬 값이 같은 행의 순서를 고정 (페이지 사이 중복/누락 방지)
+ * - 정렬이 없으면 member_id 오름차순
+ * - 카운트 쿼리에는 정렬을 붙이지 않는다.
+ */
+final class MemberSortOrders {
+
+    private static final Map<String, ComparableExpressionBase<?>> SORTABLE = new LinkedHashMap<>();
+
+    static {
+        SORTABLE.put("username", member.username);
+        SORTABLE.put("age", member.age);
+        SORTABLE.put("teamName", team.name);
+        SORTABLE.put("id", member.id);
+        SORTABLE.put("memberId", member.id);
+    }
+
+    private MemberSortOrders() {
+    }
+
+    static OrderSpecifier<?>[] of(Sort sort) {
+        List<OrderSpecifier<?>> orders = new ArrayList<>();
+        Order tiebreaker = Order.ASC;
+
+        for (Sort.Order order : sort) {
+            ComparableExpressionBase<?> path = SORTABLE.get(order.getProperty());
+            if (path == null) {
+                throw new UnsupportedSortException(order.getProperty(), SORTABLE.keySet());
+            }
+
+            orders.add(order.isAscending() ? path.asc() : path.desc());
+            if (path == member.id) {
+                return orders.toArray(new OrderSpecifier[0]);
+            }
+            tiebreaker = order.isAscending() ? Order.ASC : Order.DESC;
+        }
+
+        // 마지막 정렬 방향과 맞춰야 (컬럼, member_id) 인덱스를 한 방향으로 읽을 수 있다.
+        orders.add(tiebreaker == Order.ASC ? member.id.asc() : member.id.desc());
+        return orders.toArray(new OrderSpecifier[0]);
+    }
+}
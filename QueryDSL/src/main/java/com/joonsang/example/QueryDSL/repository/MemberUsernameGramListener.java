@@ -0,0 +1,176 @@
+package com.joonsang.example.QueryDSL.repository;
+
+import com.joonsang.example.QueryDSL.entity.Member;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.AutoFlushEvent;
+import org.hibernate.event.spi.AutoFlushEventListener;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.FlushEvent;
+import org.hibernate.event.spi.FlushEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.internal.SessionFactoryImpl;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManagerFactory;
+import java.sql.PreparedStatement;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+/**
+ * Member 저장/수정/삭제 시 회원명 3-gram 색인(member_username_gram) 동기화
+ * - flush 중에 실행되는 Hibernate 이벤트라 같은 트랜잭션, 같은 커넥션에서 JDBC 로 직접 반영
+ *   (영속성 컨텍스트를 거치지 않으므로 flush 중 엔티티를 추가하는 문제가 없다.)
+ * - 엔티티 이벤트에서는 모아두기만 하고, flush(자동 flush 포함)가 끝날 때 세션별로 delete / insert 를 한번씩 JDBC batch 로 실행
+ *   (회원마다 Statement 를 따로 만들면 hibernate.jdbc.batch_size 로 묶은 대량 적재가 다시 건건이 왕복하게 된다.)
+ * - flush 가 실패하면 세션은 버려지므로, 모아둔 내용도 세션과 함께 사라진다. (WeakHashMap)
+ * - 회원명이 바뀐 경우에만 다시 만든다.
+ * - 벌크 delete 는 이벤트가 없으므로 MemberBulkOperations 에서 색인도 함께 지운다.
+ */
+@Component
+public class MemberUsernameGramListener implements PostInsertEventListener, PostUpdateEventListener,
+        PostDeleteEventListener, FlushEventListener, AutoFlushEventListener {
+
+    private static final String INSERT_SQL = "insert into member_username_gram (member_id, gram) values (?, ?)";
+    private static final String DELETE_SQL = "delete from member_username_gram where member_id = ?";
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final Map<EventSource, PendingGrams> pending = Collections.synchronizedMap(new WeakHashMap<>());
+
+    public MemberUsernameGramListener(EntityManagerFactory entityManagerFactory) {
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    @PostConstruct
+    public void register() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImpl.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_INSERT, this);
+        registry.appendListeners(EventType.POST_UPDATE, this);
+        registry.appendListeners(EventType.POST_DELETE, this);
+        // 기본 flush 리스너(엔티티 INSERT/UPDATE/DELETE 실행) 다음에 실행
+        registry.appendListeners(EventType.FLUSH, this);
+        registry.appendListeners(EventType.AUTO_FLUSH, this);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (event.getEntity() instanceof Member) {
+            pendingOf(event.getSession()).insert((Long) event.getId(), ((Member) event.getEntity()).getUsername());
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (!(event.getEntity() instanceof Member)) {
+            return;
+        }
+
+        String username = ((Member) event.getEntity()).getUsername();
+        if (event.getOldState() != null) {
+            int index = event.getPersister().getEntityMetamodel().getPropertyIndex("username");
+            if (Objects.equals(event.getOldState()[index], username)) {
+                return;
+            }
+        }
+
+        PendingGrams grams = pendingOf(event.getSession());
+        grams.delete((Long) event.getId());
+        grams.insert((Long) event.getId(), username);
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (event.getEntity() instanceof Member) {
+            pendingOf(event.getSession()).delete((Long) event.getId());
+        }
+    }
+
+    @Override
+    public void onFlush(FlushEvent event) {
+        writePending(event.getSession());
+    }
+
+    @Override
+    public void onAutoFlush(AutoFlushEvent event) {
+        writePending(event.getSession());
+    }
+
+    @Override
+    public boolean requiresPostCommitHanding(EntityPersister persister) {
+        return false;
+    }
+
+    private PendingGrams pendingOf(EventSource session) {
+        return pending.computeIfAbsent(session, s -> new PendingGrams());
+    }
+
+    /**
+     * 이번 flush 에서 모인 변경을 delete 한번, insert 한번의 batch 로 반영
+     */
+    private void writePending(EventSource session) {
+        PendingGrams grams = pending.remove(session);
+        if (grams == null || grams.isEmpty()) {
+            return;
+        }
+
+        session.doWork(connection -> {
+            if (!grams.deletes.isEmpty()) {
+                try (PreparedStatement statement = connection.prepareStatement(DELETE_SQL)) {
+                    for (Long memberId : grams.deletes) {
+                        statement.setLong(1, memberId);
+                        statement.addBatch();
+                    }
+                    statement.executeBatch();
+                }
+            }
+
+            if (!grams.inserts.isEmpty()) {
+                try (PreparedStatement statement = connection.prepareStatement(INSERT_SQL)) {
+                    for (Map.Entry<Long, String> entry : grams.inserts.entrySet()) {
+                        for (String gram : MemberUsernameGrams.of(entry.getValue())) {
+                            statement.setLong(1, entry.getKey());
+                            statement.setString(2, gram);
+                            statement.addBatch();
+                        }
+                    }
+                    statement.executeBatch();
+                }
+            }
+        });
+    }
+
+    /**
+     * flush 한번 동안 모은 색인 변경 (회원 ID 별 최종 상태)
+     */
+    private static class PendingGrams {
+        private final Set<Long> deletes = new LinkedHashSet<>();
+        private final Map<Long, String> inserts = new LinkedHashMap<>();
+
+        private void insert(Long memberId, String username) {
+            inserts.put(memberId, username);
+        }
+
+        private void delete(Long memberId) {
+            inserts.remove(memberId);
+            deletes.add(memberId);
+        }
+
+        private boolean isEmpty() {
+            return deletes.isEmpty() && inserts.isEmpty();
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.joonsang.example.QueryDSL.repository;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import static com.joonsang.example.QueryDSL.entity.MemberUsernameGram.GRAM_SIZE;
+
+/**
+ * 문자열 -> 3-gram 목록 (중복 제거)
+ */
+final class MemberUsernameGrams {
+
+    private MemberUsernameGrams() {
+    }
+
+    /**
+     * @return 3글자 미만이면 빈 Set
+     */
+    static Set<String> of(String value) {
+        if (value == null || value.length() < GRAM_SIZE) {
+            return Collections.emptySet();
+        }
+
+        Set<String> grams = new LinkedHashSet<>();
+        for (int i = 0; i + GRAM_SIZE <= value.length(); i++) {
+            grams.add(value.substring(i, i + GRAM_SIZE));
+        }
+        return grams;
+    }
+
+    /**
+     * like 패턴 특수문자 이스케이프 (escape 문자 '!')
+     */
+    static String escapeLike(String value) {
+        return value.replace("!", "!!").replace("%", "!%").replace("_", "!_");
+    }
+
+    /**
+     * prefix 로 시작하는 문자열의 상한 (prefix <= x < upperBound)
+     * - 마지막 글자를 다음 문자로 올린다.
+     * - 올릴 수 없으면(Character.MAX_VALUE) 가장 큰 문자를 덧붙인다. (실제 회원명에는 나오지 않는 문자)
+     */
+    static String prefixUpperBound(String prefix) {
+        char last = prefix.charAt(prefix.length() - 1);
+        if (last == Character.MAX_VALUE) {
+            return prefix + Character.MAX_VALUE;
+        }
+        return prefix.substring(0, prefix.length() - 1) + (char) (last + 1);
+    }
+}
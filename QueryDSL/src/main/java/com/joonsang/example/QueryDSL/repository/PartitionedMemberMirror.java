@@ -0,0 +1,253 @@
+package com.joonsang.example.QueryDSL.repository;
+
+import com.joonsang.example.QueryDSL.dto.MemberTeamDto;
+import com.joonsang.example.QueryDSL.entity.Member;
+import com.querydsl.core.Tuple;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.internal.SessionFactoryImpl;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static com.joonsang.example.QueryDSL.entity.QMember.member;
+
+/**
+ * 원본 member 테이블의 변경을 파티션으로 복제 (파티션 모드, SearchPartitionConfig)
+ * - 원본(기존 DataSource 의 member 테이블)이 유일한 쓰기 대상이고, 파티션은 커밋된 내용을 그대로 따라가는 검색용 복제본
+ * - 엔티티 저장/수정/삭제(InitMember, MemberBulkLoader, changeTeam 등)는 Hibernate POST_INSERT/UPDATE/DELETE 이벤트로
+ *   트랜잭션 동안 모아서, 커밋 후(afterCommit) 파티션별 JDBC batch 로 한번에 반영. 롤백되면 버린다.
+ * - 엔티티 이벤트가 없는 벌크 update/delete(MemberBulkOperations)는 청크의 member_id 범위를 원본에서 다시 읽어 통째로 교체
+ * - app.datasource.search-partitions.resync-on-startup = true 면 시작 후 백그라운드 쓰레드에서 원본 전체를 범위 단위로 다시 복제
+ *   (기본은 꺼져 있음, 파티션을 새로 만들었을 때만. 복제 도중 커밋된 변경과 범위 교체가 겹칠 수 있으므로 한가할 때)
+ * - 커밋 후 반영이라, 쓰기 트랜잭션 안의 검색은 파티션이 아니라 원본에서 한다. (MemberRepositoryImpl)
+ */
+@Slf4j
+public class PartitionedMemberMirror implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener {
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final JPAQueryFactory jpaQueryFactory;
+    private final PartitionedMemberStore store;
+    private final boolean resyncOnStartup;
+    private final int resyncChunkSize;
+
+    public PartitionedMemberMirror(EntityManagerFactory entityManagerFactory,
+                               JPAQueryFactory jpaQueryFactory,
+                               PartitionedMemberStore store,
+                               boolean resyncOnStartup,
+                               int resyncChunkSize) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.jpaQueryFactory = jpaQueryFactory;
+        this.store = store;
+        this.resyncOnStartup = resyncOnStartup;
+        this.resyncChunkSize = resyncChunkSize;
+    }
+
+    @PostConstruct
+    public void register() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImpl.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_INSERT, this);
+        registry.appendListeners(EventType.POST_UPDATE, this);
+        registry.appendListeners(EventType.POST_DELETE, this);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void resyncOnStartup() {
+        if (resyncOnStartup) {
+            Thread thread = new Thread(this::resyncAll, "search-partition-resync");
+            thread.setDaemon(true);
+            thread.start();
+        }
+    }
+
+    /**
+     * 원본 전체를 resyncChunkSize 범위씩 다시 복제
+     */
+    public void resyncAll() {
+        long start = System.currentTimeMillis();
+
+        Tuple idRange = jpaQueryFactory
+                .select(member.id.min(), member.id.max())
+                .from(member)
+                .fetchOne();
+        Long minId = idRange == null ? null : idRange.get(member.id.min());
+        Long maxId = idRange == null ? null : idRange.get(member.id.max());
+        if (minId == null || maxId == null) {
+            store.deleteAll();
+            return;
+        }
+
+        store.replaceRange(Long.MIN_VALUE, minId - 1, new ArrayList<>());
+        for (long from = minId; from <= maxId; from += resyncChunkSize) {
+            long to = Math.min(from + resyncChunkSize - 1, maxId);
+            store.replaceRange(from, to, readRange(from, to));
+        }
+        store.replaceRange(maxId + 1, Long.MAX_VALUE, new ArrayList<>());
+
+        log.info("member partitions resynced, id {} ~ {} ({} ms)", minId, maxId, System.currentTimeMillis() - start);
+    }
+
+    /**
+     * 벌크 update/delete 청크 트랜잭션 안에서 호출, [fromId, toId] 범위를 커밋 후 교체
+     */
+    public void resyncRangeAfterCommit(long fromId, long toId) {
+        List<MemberTeamDto> rows = readRange(fromId, toId);
+        Changes changes = currentChanges();
+        if (changes == null) {
+            store.replaceRange(fromId, toId, rows);
+            return;
+        }
+        changes.ranges.add(new Range(fromId, toId, rows));
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (event.getEntity() instanceof Member) {
+            MemberTeamDto row = toRow((Member) event.getEntity());
+            Changes changes = currentChanges();
+            if (changes == null) {
+                store.saveAll(Collections.singletonList(row));
+                return;
+            }
+            changes.deletes.remove(row.getMemberId());
+            changes.inserts.put(row.getMemberId(), row);
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (event.getEntity() instanceof Member) {
+            MemberTeamDto row = toRow((Member) event.getEntity());
+            Changes changes = currentChanges();
+            if (changes == null) {
+                store.updateAll(Collections.singletonList(row));
+                return;
+            }
+            if (changes.inserts.containsKey(row.getMemberId())) {
+                changes.inserts.put(row.getMemberId(), row);
+            } else {
+                changes.updates.put(row.getMemberId(), row);
+            }
+        }
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (event.getEntity() instanceof Member) {
+            Long memberId = (Long) event.getId();
+            Changes changes = currentChanges();
+            if (changes == null) {
+                store.deleteByIds(Collections.singletonList(memberId));
+                return;
+            }
+            changes.inserts.remove(memberId);
+            changes.updates.remove(memberId);
+            changes.deletes.add(memberId);
+        }
+    }
+
+    @Override
+    public boolean requiresPostCommitHanding(EntityPersister persister) {
+        return false;
+    }
+
+    private List<MemberTeamDto> readRange(long fromId, long toId) {
+        List<MemberTeamDto> rows = new ArrayList<>();
+        for (Tuple tuple : jpaQueryFactory
+                .select(member.id, member.username, member.age, member.team.id)
+                .from(member)
+                .where(member.id.between(fromId, toId))
+                .fetch()) {
+            rows.add(new MemberTeamDto(tuple.get(member.id), tuple.get(member.username),
+                    tuple.get(member.age), tuple.get(member.team.id), null));
+        }
+        return rows;
+    }
+
+    /**
+     * 트랜잭션 당 하나, 커밋 후 반영하도록 등록. 트랜잭션 밖이면 null (바로 반영)
+     */
+    private Changes currentChanges() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return null;
+        }
+
+        Changes changes = (Changes) TransactionSynchronizationManager.getResource(this);
+        if (changes != null) {
+            return changes;
+        }
+
+        Changes created = new Changes();
+        TransactionSynchronizationManager.bindResource(this, created);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                created.applyTo(store);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(PartitionedMemberMirror.this);
+            }
+        });
+        return created;
+    }
+
+    private static MemberTeamDto toRow(Member entity) {
+        return new MemberTeamDto(entity.getId(), entity.getUsername(), entity.getAge(),
+                TeamStatisticsEventListener.teamIdOf(entity.getTeam()), null);
+    }
+
+    private static class Changes {
+        private final Map<Long, MemberTeamDto> inserts = new LinkedHashMap<>();
+        private final Map<Long, MemberTeamDto> updates = new LinkedHashMap<>();
+        private final Set<Long> deletes = new LinkedHashSet<>();
+        private final List<Range> ranges = new ArrayList<>();
+
+        /**
+         * 범위 교체는 그 시점의 원본 상태 전체이므로 마지막에
+         */
+        private void applyTo(PartitionedMemberStore store) {
+            store.deleteByIds(deletes);
+            store.saveAll(new ArrayList<>(inserts.values()));
+            store.updateAll(new ArrayList<>(updates.values()));
+            for (Range range : ranges) {
+                store.replaceRange(range.fromId, range.toId, range.rows);
+            }
+        }
+    }
+
+    private static class Range {
+        private final long fromId;
+        private final long toId;
+        private final List<MemberTeamDto> rows;
+
+        private Range(long fromId, long toId, List<MemberTeamDto> rows) {
+            this.fromId = fromId;
+            this.toId = toId;
+            this.rows = rows;
+        }
+    }
+}
@@ -0,0 +1,375 @@
+package com.joonsang.example.QueryDSL.repository;
+
+import com.joonsang.example.QueryDSL.datasource.MemberSearchPartitions;
+import com.joonsang.example.QueryDSL.datasource.StatementScope;
+import com.joonsang.example.QueryDSL.dto.MemberSearchCondition;
+import com.joonsang.example.QueryDSL.dto.MemberTeamDto;
+import com.joonsang.example.QueryDSL.entity.Team;
+import com.joonsang.example.QueryDSL.monitor.CountQueryMetrics;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.function.IntFunction;
+
+import static org.springframework.util.ObjectUtils.isEmpty;
+
+/**
+ * 파티션 모드의 회원 검색 (scatter-gather)
+ * - 검색할 파티션마다 searchQueryExecutor 에서 병렬로 조회 (첫 파티션은 호출 쓰레드), 결과는 정렬 순서대로 k-way merge
+ * - 페이지 조회는 파티션마다 offset + size 건까지만 읽어서 합친 뒤 잘라낸다. (깊은 페이지일수록 파티션 수 배로 읽는다)
+ * - 전체 카운트는 파티션별 count(*) 의 합 (MemberCountCache, 첫/마지막 페이지는 생략)
+ * - 팀명 조건은 팀 ID 로 바꿔서, team_id 기준 파티션이면 그 팀이 있는 파티션만 조회
+ * - 팀명은 파티션에 없으므로 합친 결과의 팀 ID 로 team 테이블(2차 캐시)에서 채운다. 그래서 teamName 정렬은 지원하지 않는다.
+ * - 파티션 조회는 호출 측 트랜잭션 밖에서 실행된다.
+ * - 원본 검색과 같은 쿼리 시간 제한(QueryTimeouts)을 걸고, 요청이 취소되면 파티션 Statement 도 취소된다. (StatementScope)
+ *   한 파티션이 실패하면 나머지 파티션의 실행 중인 Statement 를 취소
+ * - 회원명 contains 는 파티션의 3-gram 색인으로 후보를 줄이고 like 로 확인 (MemberPredicates.usernameContains 와 같음)
+ */
+public class PartitionedMemberSearch {
+
+    private static final String SELECT = "select member_id, username, age, team_id from member";
+
+    private static final Map<String, String> SORTABLE = new LinkedHashMap<>();
+
+    static {
+        SORTABLE.put("username", "username");
+        SORTABLE.put("age", "age");
+        SORTABLE.put("id", "member_id");
+        SORTABLE.put("memberId", "member_id");
+    }
+
+    private static final RowMapper<MemberTeamDto> ROW_MAPPER = (rs, rowNum) -> {
+        long teamId = rs.getLong("team_id");
+        return new MemberTeamDto(
+                rs.getLong("member_id"),
+                rs.getString("username"),
+                rs.getInt("age"),
+                rs.wasNull() ? null : teamId,
+                null);
+    };
+
+    private final MemberSearchPartitions partitions;
+    private final TeamRepository teamRepository;
+    private final ThreadPoolTaskExecutor searchQueryExecutor;
+    private final MemberCountCache memberCountCache;
+    private final CountQueryMetrics countQueryMetrics;
+
+    public PartitionedMemberSearch(MemberSearchPartitions partitions,
+                               TeamRepository teamRepository,
+                               ThreadPoolTaskExecutor searchQueryExecutor,
+                               MemberCountCache memberCountCache,
+                               CountQueryMetrics countQueryMetrics) {
+        this.partitions = partitions;
+        this.teamRepository = teamRepository;
+        this.searchQueryExecutor = searchQueryExecutor;
+        this.memberCountCache = memberCountCache;
+        this.countQueryMetrics = countQueryMetrics;
+    }
+
+    /**
+     * @param limit 최대 건수, null 이면 전체 (member_id 순)
+     */
+    public List<MemberTeamDto> search(MemberSearchCondition condition, Long limit) {
+        return fetch(condition, Sort.unsorted(), limit);
+    }
+
+    public Page<MemberTeamDto> searchPage(MemberSearchCondition condition, Pageable pageable) {
+        if (pageable.isUnpaged()) {
+            return new PageImpl<>(fetch(condition, pageable.getSort(), null));
+        }
+
+        long offset = pageable.getOffset();
+        List<MemberTeamDto> merged = fetch(condition, pageable.getSort(), offset + pageable.getPageSize());
+        List<MemberTeamDto> content = merged.size() <= offset
+                ? Collections.emptyList()
+                : new ArrayList<>(merged.subList((int) offset, merged.size()));
+        return countQueryMetrics.getPage(content, pageable, () -> count(condition));
+    }
+
+    public long count(MemberSearchCondition condition) {
+        return memberCountCache.getCount(condition, () -> {
+            List<Long> teamIds = teamRepository.resolveTeamIds(condition.getTeamName());
+            if (teamIds != null && teamIds.isEmpty()) {
+                return 0;
+            }
+
+            Where where = where(condition, teamIds);
+            long total = 0;
+            for (Long count : fanOut(partitions.partitionsFor(teamIds), partition -> jdbc(partition)
+                    .queryForObject("select count(*) from member" + where.sql, where.params, Long.class))) {
+                total += count == null ? 0 : count;
+            }
+            return total;
+        });
+    }
+
+    private List<MemberTeamDto> fetch(MemberSearchCondition condition, Sort sort, Long limit) {
+        List<Long> teamIds = teamRepository.resolveTeamIds(condition.getTeamName());
+        if (teamIds != null && teamIds.isEmpty()) {
+            // 없는 팀명이면 파티션까지 갈 필요 없음
+            return Collections.emptyList();
+        }
+
+        Where where = where(condition, teamIds);
+        OrderBy orderBy = orderBy(sort);
+        MapSqlParameterSource params = new MapSqlParameterSource(where.params.getValues());
+        String sql = SELECT + where.sql + " order by " + orderBy.sql;
+        if (limit != null) {
+            sql += " limit :limit";
+            params.addValue("limit", limit);
+        }
+
+        String partitionSql = sql;
+        List<List<MemberTeamDto>> results = fanOut(partitions.partitionsFor(teamIds),
+                partition -> jdbc(partition).query(partitionSql, params, ROW_MAPPER));
+
+        List<MemberTeamDto> merged = merge(results, orderBy.comparator, limit);
+        fillTeamNames(merged);
+        return merged;
+    }
+
+    /**
+     * 현재 쓰레드의 쿼리 시간 제한 (searchQueryExecutor 쓰레드에는 QueryTimeouts / StatementScope 가 전달된다)
+     */
+    private NamedParameterJdbcTemplate jdbc(int partition) {
+        return partitions.jdbc(partition, QueryTimeouts.currentMillis());
+    }
+
+    private <T> List<T> fanOut(List<Integer> targets, IntFunction<T> query) {
+        StatementScope scope = StatementScope.child(StatementScope.current());
+        List<Future<T>> futures = new ArrayList<>();
+        boolean completed = false;
+        try {
+            for (int i = 1; i < targets.size(); i++) {
+                int partition = targets.get(i);
+                futures.add(searchQueryExecutor.submit(scope.wrap(() -> query.apply(partition))));
+            }
+
+            List<T> results = new ArrayList<>(targets.size());
+            results.add(call(scope.wrap(() -> query.apply(targets.get(0)))));
+            for (Future<T> future : futures) {
+                results.add(await(future));
+            }
+            completed = true;
+            return results;
+        } finally {
+            if (!completed) {
+                futures.forEach(future -> future.cancel(false));
+                scope.cancel();
+            }
+        }
+    }
+
+    private static <T> T call(Callable<T> callable) {
+        try {
+            return callable.call();
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalStateException("파티션 조회 실패", e);
+        }
+    }
+
+    /**
+     * 파티션별로 정렬된 결과를 하나로 합침 (k-way merge)
+     */
+    private static List<MemberTeamDto> merge(List<List<MemberTeamDto>> sorted, Comparator<MemberTeamDto> comparator, Long limit) {
+        if (sorted.size() == 1) {
+            return sorted.get(0);
+        }
+
+        PriorityQueue<Cursor> queue = new PriorityQueue<>((a, b) -> comparator.compare(a.head, b.head));
+        for (List<MemberTeamDto> rows : sorted) {
+            Cursor cursor = new Cursor(rows.iterator());
+            if (cursor.head != null) {
+                queue.add(cursor);
+            }
+        }
+
+        List<MemberTeamDto> merged = new ArrayList<>();
+        while (!queue.isEmpty() && (limit == null || merged.size() < limit)) {
+            Cursor cursor = queue.poll();
+            merged.add(cursor.head);
+            if (cursor.next() != null) {
+                queue.add(cursor);
+            }
+        }
+        return merged;
+    }
+
+    private void fillTeamNames(List<MemberTeamDto> rows) {
+        Set<Long> teamIds = new LinkedHashSet<>();
+        for (MemberTeamDto row : rows) {
+            if (row.getTeamId() != null) {
+                teamIds.add(row.getTeamId());
+            }
+        }
+        if (teamIds.isEmpty()) {
+            return;
+        }
+
+        Map<Long, String> names = new HashMap<>();
+        for (Team team : teamRepository.findAllById(teamIds)) {
+            names.put(team.getId(), team.getName());
+        }
+        for (MemberTeamDto row : rows) {
+            row.setTeamName(row.getTeamId() == null ? null : names.get(row.getTeamId()));
+        }
+    }
+
+    /**
+     * MemberPredicates 와 같은 조건을 SQL 로
+     */
+    private static Where where(MemberSearchCondition condition, List<Long> teamIds) {
+        List<String> predicates = new ArrayList<>();
+        MapSqlParameterSource params = new MapSqlParameterSource();
+
+        if (!isEmpty(condition.getUsername())) {
+            predicates.add("username = :username");
+            params.addValue("username", condition.getUsername());
+        }
+        if (!isEmpty(condition.getUsernamePrefix())) {
+            predicates.add("username >= :usernamePrefix and username < :usernamePrefixEnd");
+            params.addValue("usernamePrefix", condition.getUsernamePrefix());
+            params.addValue("usernamePrefixEnd", MemberUsernameGrams.prefixUpperBound(condition.getUsernamePrefix()));
+        }
+        if (!isEmpty(condition.getUsernameContains())) {
+            Set<String> grams = MemberUsernameGrams.of(condition.getUsernameContains());
+            if (!grams.isEmpty()) {
+                predicates.add("member_id in (select member_id from member_username_gram where gram in (:grams)"
+                        + " group by member_id having count(*) = :gramCount)");
+                params.addValue("grams", grams);
+                params.addValue("gramCount", grams.size());
+            }
+            predicates.add("username like :usernameLike escape '!'");
+            params.addValue("usernameLike", "%" + MemberUsernameGrams.escapeLike(condition.getUsernameContains()) + "%");
+        }
+        if (teamIds != null) {
+            predicates.add("team_id in (:teamIds)");
+            params.addValue("teamIds", teamIds);
+        }
+        if (condition.getAgeGoe() != null) {
+            predicates.add("age >= :ageGoe");
+            params.addValue("ageGoe", condition.getAgeGoe());
+        }
+        if (condition.getAgeLoe() != null) {
+            predicates.add("age <= :ageLoe");
+            params.addValue("ageLoe", condition.getAgeLoe());
+        }
+
+        return new Where(predicates.isEmpty() ? "" : " where " + String.join(" and ", predicates), params);
+    }
+
+    /**
+     * MemberSortOrders 와 같은 규칙 (허용된 속성만, 마지막에 member_id), 파티션 결과를 합칠 때 쓰는 Comparator 도 같이 만든다.
+     */
+    private static OrderBy orderBy(Sort sort) {
+        StringJoiner sql = new StringJoiner(", ");
+        Comparator<MemberTeamDto> comparator = null;
+        boolean ascending = true;
+
+        for (Sort.Order order : sort) {
+            String column = SORTABLE.get(order.getProperty());
+            if (column == null) {
+                throw new UnsupportedSortException(order.getProperty(), SORTABLE.keySet());
+            }
+
+            Comparator<MemberTeamDto> next = comparatorOf(column);
+            next = order.isAscending() ? next : next.reversed();
+            comparator = comparator == null ? next : comparator.thenComparing(next);
+            sql.add(column + (order.isAscending() ? " asc" : " desc"));
+            if ("member_id".equals(column)) {
+                return new OrderBy(sql.toString(), comparator);
+            }
+            ascending = order.isAscending();
+        }
+
+        Comparator<MemberTeamDto> tiebreaker = ascending ? comparatorOf("member_id") : comparatorOf("member_id").reversed();
+        sql.add("member_id" + (ascending ? " asc" : " desc"));
+        return new OrderBy(sql.toString(), comparator == null ? tiebreaker : comparator.thenComparing(tiebreaker));
+    }
+
+    /**
+     * H2 의 기본 정렬과 맞춤 (문자열은 String.compareTo, null 은 오름차순에서 먼저)
+     */
+    private static Comparator<MemberTeamDto> comparatorOf(String column) {
+        switch (column) {
+            case "username":
+                return Comparator.comparing(MemberTeamDto::getUsername, Comparator.nullsFirst(Comparator.naturalOrder()));
+            case "age":
+                return Comparator.comparingInt(MemberTeamDto::getAge);
+            default:
+                return Comparator.comparing(MemberTeamDto::getMemberId);
+        }
+    }
+
+    private static <T> T await(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("파티션 조회 대기 중 인터럽트 발생", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException("파티션 조회 실패", e.getCause());
+        }
+    }
+
+    private static class Where {
+        private final String sql;
+        private final MapSqlParameterSource params;
+
+        private Where(String sql, MapSqlParameterSource params) {
+            this.sql = sql;
+            this.params = params;
+        }
+    }
+
+    private static class OrderBy {
+        private final String sql;
+        private final Comparator<MemberTeamDto> comparator;
+
+        private OrderBy(String sql, Comparator<MemberTeamDto> comparator) {
+            this.sql = sql;
+            this.comparator = comparator;
+        }
+    }
+
+    private static class Cursor {
+        private final Iterator<MemberTeamDto> iterator;
+        private MemberTeamDto head;
+
+        private Cursor(Iterator<MemberTeamDto> iterator) {
+            this.iterator = iterator;
+            next();
+        }
+
+        private MemberTeamDto next() {
+            head = iterator.hasNext() ? iterator.next() : null;
+            return head;
+        }
+    }
+}
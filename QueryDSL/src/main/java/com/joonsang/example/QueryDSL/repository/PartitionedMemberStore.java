@@ -0,0 +1,210 @@
+package com.joonsang.example.QueryDSL.repository;
+
+import com.joonsang.example.QueryDSL.datasource.MemberSearchPartitions;
+import com.joonsang.example.QueryDSL.datasource.PartitionKey;
+import com.joonsang.example.QueryDSL.dto.MemberTeamDto;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 파티션 모드의 회원 저장 (MemberSearchPartitions.partitionOf 로 파티션 선택)
+ * - 원본은 기존 DataSource 의 member 테이블, 파티션에는 PartitionedMemberMirror 가 커밋된 변경을 이 클래스로 반영한다.
+ *   직접 호출은 테스트, 이관 용도로만
+ * - 회원 ID 는 원본 member 테이블의 ID 를 그대로 사용
+ * - 수정(updateAll)은 team_id 가 바뀌어서 파티션이 바뀔 수 있으므로, 다른 파티션의 같은 ID 를 지우고 새 파티션에 merge
+ * - 팀명(teamName) 은 저장하지 않는다.
+ * - 회원명 3-gram 색인(member_username_gram)을 회원과 같은 파티션에 함께 갱신한다. (contains 검색)
+ * - Hibernate 엔티티 이벤트를 거치지 않으므로, 변경할 때마다 MemberChangeListener.onBulkChange() 로
+ *   카운트 캐시 / 데이터 버전(ETag, 응답 캐시, 검색 합치기 키)을 직접 갱신한다.
+ */
+public class PartitionedMemberStore {
+
+    private static final String INSERT = "insert into member (member_id, username, age, team_id)"
+            + " values (:memberId, :username, :age, :teamId)";
+
+    private static final String MERGE = "merge into member (member_id, username, age, team_id) key (member_id)"
+            + " values (:memberId, :username, :age, :teamId)";
+
+    private static final String INSERT_GRAM = "insert into member_username_gram (member_id, gram) values (:memberId, :gram)";
+
+    private static final int DELETE_CHUNK_SIZE = 1000;
+
+    private final MemberSearchPartitions partitions;
+    private final MemberChangeListener memberChangeListener;
+
+    public PartitionedMemberStore(MemberSearchPartitions partitions, MemberChangeListener memberChangeListener) {
+        this.partitions = partitions;
+        this.memberChangeListener = memberChangeListener;
+    }
+
+    public void save(MemberTeamDto member) {
+        saveAll(Collections.singletonList(member));
+    }
+
+    /**
+     * 파티션별로 모아서 JDBC batch insert
+     */
+    public void saveAll(List<MemberTeamDto> members) {
+        if (members.isEmpty()) {
+            return;
+        }
+
+        batchByPartition(INSERT, members);
+        insertGrams(members);
+        memberChangeListener.onBulkChange();
+    }
+
+    /**
+     * 수정 (파티션 이동 포함)
+     * - team_id 기준 파티션이면, 새 파티션이 아닌 파티션에서 같은 ID 를 먼저 지운다. (이전 team_id 를 몰라도 된다)
+     */
+    public void updateAll(List<MemberTeamDto> members) {
+        if (members.isEmpty()) {
+            return;
+        }
+
+        if (partitions.getPartitionKey() == PartitionKey.TEAM_ID && partitions.size() > 1) {
+            Map<Integer, List<Long>> moveOut = new HashMap<>();
+            for (MemberTeamDto member : members) {
+                int target = partitionOf(member);
+                for (int partition = 0; partition < partitions.size(); partition++) {
+                    if (partition != target) {
+                        moveOut.computeIfAbsent(partition, s -> new ArrayList<>()).add(member.getMemberId());
+                    }
+                }
+            }
+            moveOut.forEach(this::deleteIn);
+        }
+
+        batchByPartition(MERGE, members);
+        List<Long> ids = new ArrayList<>();
+        for (MemberTeamDto member : members) {
+            ids.add(member.getMemberId());
+        }
+        for (int partition = 0; partition < partitions.size(); partition++) {
+            deleteGramsIn(partition, ids);
+        }
+        insertGrams(members);
+        memberChangeListener.onBulkChange();
+    }
+
+    public boolean delete(Long memberId, Long teamId) {
+        int partition = partitions.partitionOf(memberId, teamId);
+        MapSqlParameterSource params = new MapSqlParameterSource("memberId", memberId);
+        partitions.jdbc(partition).update("delete from member_username_gram where member_id = :memberId", params);
+        boolean deleted = partitions.jdbc(partition).update("delete from member where member_id = :memberId", params) > 0;
+        memberChangeListener.onBulkChange();
+        return deleted;
+    }
+
+    /**
+     * ID 로 삭제 (어느 파티션에 있는지 모르는 경우, 모든 파티션에서 PK 로 삭제)
+     */
+    public void deleteByIds(Collection<Long> memberIds) {
+        if (memberIds.isEmpty()) {
+            return;
+        }
+
+        List<Long> ids = new ArrayList<>(memberIds);
+        for (int partition = 0; partition < partitions.size(); partition++) {
+            deleteIn(partition, ids);
+            deleteGramsIn(partition, ids);
+        }
+        memberChangeListener.onBulkChange();
+    }
+
+    /**
+     * member_id 범위를 통째로 교체 (원본의 벌크 update/delete 청크, 시작 시 전체 동기화)
+     *
+     * @param members 원본에서 읽은 [fromId, toId] 범위의 모든 회원
+     */
+    public void replaceRange(long fromId, long toId, List<MemberTeamDto> members) {
+        MapSqlParameterSource range = new MapSqlParameterSource()
+                .addValue("fromId", fromId)
+                .addValue("toId", toId);
+        for (int partition = 0; partition < partitions.size(); partition++) {
+            partitions.jdbc(partition).update("delete from member where member_id between :fromId and :toId", range);
+            partitions.jdbc(partition).update("delete from member_username_gram where member_id between :fromId and :toId", range);
+        }
+
+        if (!members.isEmpty()) {
+            batchByPartition(INSERT, members);
+            insertGrams(members);
+        }
+        memberChangeListener.onBulkChange();
+    }
+
+    public void deleteAll() {
+        for (int partition = 0; partition < partitions.size(); partition++) {
+            partitions.jdbc(partition).getJdbcTemplate().update("delete from member");
+            partitions.jdbc(partition).getJdbcTemplate().update("delete from member_username_gram");
+        }
+        memberChangeListener.onBulkChange();
+    }
+
+    private void batchByPartition(String sql, List<MemberTeamDto> members) {
+        Map<Integer, List<SqlParameterSource>> byPartition = new HashMap<>();
+        for (MemberTeamDto member : members) {
+            byPartition.computeIfAbsent(partitionOf(member), partition -> new ArrayList<>()).add(parameters(member));
+        }
+
+        byPartition.forEach((partition, batch) ->
+                partitions.jdbc(partition).batchUpdate(sql, batch.toArray(new SqlParameterSource[0])));
+    }
+
+    /**
+     * 회원과 같은 파티션에 3-gram 을 파티션별 JDBC batch insert
+     */
+    private void insertGrams(List<MemberTeamDto> members) {
+        Map<Integer, List<SqlParameterSource>> byPartition = new HashMap<>();
+        for (MemberTeamDto member : members) {
+            for (String gram : MemberUsernameGrams.of(member.getUsername())) {
+                byPartition.computeIfAbsent(partitionOf(member), partition -> new ArrayList<>())
+                        .add(new MapSqlParameterSource()
+                                .addValue("memberId", member.getMemberId())
+                                .addValue("gram", gram));
+            }
+        }
+
+        byPartition.forEach((partition, batch) ->
+                partitions.jdbc(partition).batchUpdate(INSERT_GRAM, batch.toArray(new SqlParameterSource[0])));
+    }
+
+    private void deleteGramsIn(int partition, List<Long> ids) {
+        for (int from = 0; from < ids.size(); from += DELETE_CHUNK_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(from + DELETE_CHUNK_SIZE, ids.size()));
+            partitions.jdbc(partition).update("delete from member_username_gram where member_id in (:ids)",
+                    new MapSqlParameterSource("ids", chunk));
+        }
+    }
+
+    private void deleteIn(int partition, List<Long> ids) {
+        for (int from = 0; from < ids.size(); from += DELETE_CHUNK_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(from + DELETE_CHUNK_SIZE, ids.size()));
+            partitions.jdbc(partition).update("delete from member where member_id in (:ids)",
+                    new MapSqlParameterSource("ids", chunk));
+        }
+    }
+
+    private int partitionOf(MemberTeamDto member) {
+        if (member.getMemberId() == null) {
+            throw new IllegalArgumentException("파티션 모드에서는 회원 ID 를 지정해야 합니다.");
+        }
+        return partitions.partitionOf(member.getMemberId(), member.getTeamId());
+    }
+
+    private static SqlParameterSource parameters(MemberTeamDto member) {
+        return new MapSqlParameterSource()
+                .addValue("memberId", member.getMemberId())
+                .addValue("username", member.getUsername())
+                .addValue("age", member.getAge())
+                .addValue("teamId", member.getTeamId());
+    }
+}
@@ -0,0 +1,57 @@
+package com.joonsang.example.QueryDSL.repository;
+
+import com.joonsang.example.QueryDSL.config.RepositoryAspectOrder;
+import com.joonsang.example.QueryDSL.dto.MemberSearchCondition;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.stream.Stream;
+
+/**
+ * 레포지토리 메서드 실행 동안 검색 조건 모양별 시간 제한을 건다. (QueryTimeoutPolicy)
+ * - 중첩 호출이면 바깥 메서드의 제한을 그대로 쓴다.
+ * - Stream 을 반환하는 메서드(내보내기)는 전체를 읽는 게 목적이므로 요청 마감 시각만 적용
+ */
+@Aspect
+@Order(RepositoryAspectOrder.TIMEOUT)
+@Component
+public class QueryTimeoutAspect {
+
+    private final QueryTimeoutPolicy policy;
+
+    public QueryTimeoutAspect(QueryTimeoutPolicy policy) {
+        this.policy = policy;
+    }
+
+    @Around("within(com.joonsang.example.QueryDSL.repository.*RepositoryImpl)")
+    public Object timeout(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (QueryTimeouts.get() != null || isStreaming(joinPoint)) {
+            return joinPoint.proceed();
+        }
+
+        Long previous = QueryTimeouts.set(policy.shapeTimeoutMillis(shapeOf(joinPoint.getArgs())));
+        try {
+            return joinPoint.proceed();
+        } finally {
+            QueryTimeouts.restore(previous);
+        }
+    }
+
+    private static boolean isStreaming(ProceedingJoinPoint joinPoint) {
+        return joinPoint.getSignature() instanceof MethodSignature
+                && Stream.class.isAssignableFrom(((MethodSignature) joinPoint.getSignature()).getReturnType());
+    }
+
+    private static Integer shapeOf(Object[] args) {
+        for (Object arg : args) {
+            if (arg instanceof MemberSearchCondition) {
+                return MemberSearchShape.of((MemberSearchCondition) arg);
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,44 @@
+package com.joonsang.example.QueryDSL.repository;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 쿼리 시간 제한 설정 (member.query-timeout.*)
+ * - endpoints : 요청 URI 별 요청 전체 제한 (예: endpoints[/v1/members] = 5000), 없으면 제한 없음
+ * - shapes    : 검색 조건 모양(MemberSearchShape.name) 별 레포지토리 메서드 제한 (예: shapes[none] = 3000)
+ * - default-ms : shapes 에 없는 모양 / 검색 조건이 없는 레포지토리 메서드의 제한, 0 이면 제한 없음
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "member.query-timeout")
+public class QueryTimeoutPolicy {
+
+    private long defaultMs = 10_000;
+    private Map<String, Long> endpoints = new HashMap<>();
+    private Map<String, Long> shapes = new HashMap<>();
+
+    /**
+     * @return 0 이면 제한 없음
+     */
+    public long endpointTimeoutMillis(String requestUri) {
+        Long timeout = endpoints.get(requestUri);
+        return timeout == null ? 0 : timeout;
+    }
+
+    /**
+     * @param shape 검색 조건이 없는 메서드면 null
+     * @return 제한이 없으면 null
+     */
+    public Long shapeTimeoutMillis(Integer shape) {
+        Long timeout = shape == null ? null : shapes.get(MemberSearchShape.name(shape));
+        long millis = timeout == null ? defaultMs : timeout;
+        return millis > 0 ? millis : null;
+    }
+}
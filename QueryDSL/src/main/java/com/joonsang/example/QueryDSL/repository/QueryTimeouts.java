@@ -0,0 +1,93 @@
+package com.joonsang.example.QueryDSL.repository;
+
+import com.joonsang.example.QueryDSL.datasource.StatementScope;
+import com.querydsl.jpa.impl.JPAQuery;
+
+import javax.persistence.Query;
+
+/**
+ * 현재 쓰레드의 쿼리 시간 제한 (javax.persistence.query.timeout 힌트)
+ * - 레포지토리 메서드 단위 제한(QueryTimeoutAspect)과 요청 마감까지 남은 시간(StatementScope) 중 짧은 값
+ * - JDBC Statement.setQueryTimeout 은 초 단위라서, 1초 단위로 올림 (1초 미만이면 Hibernate 가 0 = 무제한으로 바꾼다)
+ */
+public final class QueryTimeouts {
+
+    public static final String HINT = "javax.persistence.query.timeout";
+
+    private static final ThreadLocal<Long> TIMEOUT = new ThreadLocal<>();
+
+    private QueryTimeouts() {
+    }
+
+    /**
+     * @return 힌트 값(ms), 제한이 없으면 null
+     */
+    public static Integer currentMillis() {
+        Long timeout = TIMEOUT.get();
+        StatementScope scope = StatementScope.current();
+        Long remaining = scope == null ? null : scope.remainingMillis();
+
+        Long millis = timeout == null ? remaining : remaining == null ? timeout : Math.min(timeout, remaining);
+        if (millis == null) {
+            return null;
+        }
+        long seconds = Math.max(1, (millis + 999) / 1000);
+        return (int) Math.min(Integer.MAX_VALUE, seconds * 1000);
+    }
+
+    public static <T extends JPAQuery<?>> T apply(T query) {
+        Integer millis = currentMillis();
+        if (millis != null) {
+            query.setHint(HINT, millis);
+        }
+        return query;
+    }
+
+    public static Query apply(Query query) {
+        Integer millis = currentMillis();
+        if (millis != null) {
+            query.setHint(HINT, millis);
+        }
+        return query;
+    }
+
+    static Long get() {
+        return TIMEOUT.get();
+    }
+
+    /**
+     * 구간 시작, 이전 값을 반환 (restore 로 되돌린다)
+     */
+    static Long set(Long timeoutMillis) {
+        Long previous = TIMEOUT.get();
+        TIMEOUT.set(timeoutMillis);
+        return previous;
+    }
+
+    static void restore(Long previous) {
+        if (previous == null) {
+            TIMEOUT.remove();
+        } else {
+            TIMEOUT.set(previous);
+        }
+    }
+
+    /**
+     * searchQueryExecutor 에서 실행되는 카운트 쿼리도 같은 제한을 쓰도록 전달
+     */
+    public static Runnable propagate(Runnable runnable) {
+        Long timeout = TIMEOUT.get();
+        if (timeout == null) {
+            return runnable;
+        }
+
+        return () -> {
+            Long previous = set(timeout);
+            try {
+                runnable.run();
+            } finally {
+                restore(previous);
+            }
+        };
+    }
+}
@@ -0,0 +1,12 @@
+package com.joonsang.example.QueryDSL.repository;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class RowLimitExceededException extends IllegalArgumentException {
+
+    public RowLimitExceededException(int maxRows) {
+        super("검색 결과가 최대 " + maxRows + "건을 넘습니다. 페이징(/v2/members) 또는 스트리밍(/v1/members/export)으로 조회해 주세요.");
+    }
+}
@@ -0,0 +1,29 @@
+package com.joonsang.example.QueryDSL.repository;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * 비싼 검색 레인이 가득 참 - 429 Too Many Requests + Retry-After
+ */
+public class SearchRejectedException extends ResponseStatusException {
+
+    private final long retryAfterSeconds;
+
+    public SearchRejectedException(long retryAfterSeconds) {
+        super(HttpStatus.TOO_MANY_REQUESTS, "검색 요청이 많습니다. " + retryAfterSeconds + "초 후에 다시 시도해 주세요.");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+
+    @Override
+    public HttpHeaders getResponseHeaders() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        return headers;
+    }
+}
@@ -0,0 +1,41 @@
+package com.joonsang.example.QueryDSL.repository;
+
+import com.joonsang.example.QueryDSL.entity.Team;
+import org.hibernate.SessionFactory;
+import org.springframework.stereotype.Component;
+
+import javax.persistence.EntityManagerFactory;
+
+/**
+ * Team 2차 캐시 명시적 제거
+ * - JPA 로 변경하면 Hibernate 가 알아서 갱신하지만, 벌크 연산/외부 시스템이 직접 테이블을 바꾼 경우 사용
+ */
+@Component
+public class TeamCache {
+
+    static final String TEAM_NAME_REGION = "team-name";
+
+    private final EntityManagerFactory emf;
+
+    public TeamCache(EntityManagerFactory emf) {
+        this.emf = emf;
+    }
+
+    public void evict(Long teamId) {
+        emf.getCache().evict(Team.class, teamId);
+        evictNameLookups();
+    }
+
+    public void evictAll() {
+        emf.getCache().evict(Team.class);
+        evictNameLookups();
+    }
+
+    public boolean contains(Long teamId) {
+        return emf.getCache().contains(Team.class, teamId);
+    }
+
+    private void evictNameLookups() {
+        emf.unwrap(SessionFactory.class).getCache().evictQueryRegion(TEAM_NAME_REGION);
+    }
+}
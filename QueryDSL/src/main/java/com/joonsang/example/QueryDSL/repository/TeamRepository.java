@@ -0,0 +1,35 @@
+package com.joonsang.example.QueryDSL.repository;
+
+import com.joonsang.example.QueryDSL.entity.Team;
+import org.hibernate.annotations.QueryHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.QueryHint;
+import java.util.List;
+
+import static org.springframework.util.ObjectUtils.isEmpty;
+
+@Repository
+public interface TeamRepository extends JpaRepository<Team, Long>, TeamRepositoryCustom {
+
+    /**
+     * 팀명 -> 팀 ID
+     * - 쿼리 캐시(team-name 리전)에서 조회, team 테이블이 변경되면 Hibernate 가 자동으로 무효화
+     * - 팀명은 유니크하지 않으므로 목록으로 반환
+     */
+    @QueryHints({
+            @QueryHint(name = QueryHints.CACHEABLE, value = "true"),
+            @QueryHint(name = QueryHints.CACHE_REGION, value = "team-name")})
+    @Query("select t.id from Team t where t.name = :name")
+    List<Long> findIdsByName(@Param("name") String name);
+
+    /**
+     * @return 팀명 조건이 없으면 null (where 절에서 무시)
+     */
+    default List<Long> resolveTeamIds(String teamName) {
+        return isEmpty(teamName) ? null : findIdsByName(teamName);
+    }
+}
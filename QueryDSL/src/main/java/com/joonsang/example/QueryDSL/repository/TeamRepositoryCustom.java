@@ -0,0 +1,13 @@
+package com.joonsang.example.QueryDSL.repository;
+
+import com.joonsang.example.QueryDSL.dto.TeamMembersDto;
+import com.joonsang.example.QueryDSL.dto.TeamStatisticsDto;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+
+public interface TeamRepositoryCustom {
+    Page<TeamMembersDto> searchTeamsWithMembers(Pageable pageable);
+    List<TeamStatisticsDto> findTeamStatistics();
+}
@@ -0,0 +1,129 @@
+package com.joonsang.example.QueryDSL.repository;
+
+import com.joonsang.example.QueryDSL.dto.QTeamMembersDto;
+import com.joonsang.example.QueryDSL.dto.TeamMemberDto;
+import com.joonsang.example.QueryDSL.dto.TeamMembersDto;
+import com.joonsang.example.QueryDSL.dto.TeamStatisticsDto;
+import com.joonsang.example.QueryDSL.monitor.CountQueryMetrics;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.joonsang.example.QueryDSL.entity.QTeam.team;
+
+public class TeamRepositoryImpl implements TeamRepositoryCustom {
+
+    /**
+     * 회원 조회 IN 절 하나에 담을 최대 팀 수 (페이지가 커도 쿼리 수가 고정된 몇 개로 제한)
+     */
+    private static final int IN_BATCH_SIZE = 500;
+
+    /**
+     * 팀별로 회원 ID 순 앞에서 :limit 건 (JPQL 에는 윈도우 함수가 없으므로 네이티브 쿼리, H2 / MySQL 8 / PostgreSQL 공통)
+     */
+    private static final String MEMBERS_PER_TEAM_SQL = "select member_id, username, age, team_id from ("
+            + " select m.member_id, m.username, m.age, m.team_id,"
+            + " row_number() over (partition by m.team_id order by m.member_id) as rn"
+            + " from member m where m.team_id in (:teamIds)) ranked"
+            + " where rn <= :limit"
+            + " order by team_id, member_id";
+
+    private final JPAQueryFactory jpaQueryFactory;
+    private final EntityManager em;
+    private final CountQueryMetrics countQueryMetrics;
+    private final TeamStatistics teamStatistics;
+    private final int membersPerTeam;
+
+    public TeamRepositoryImpl(JPAQueryFactory jpaQueryFactory, EntityManager em, CountQueryMetrics countQueryMetrics,
+                              TeamStatistics teamStatistics,
+                              @Value("${team.search.members-per-team:20}") int membersPerTeam) {
+        if (membersPerTeam < 1) {
+            throw new IllegalStateException("team.search.members-per-team 는 1 이상이어야 합니다. value=" + membersPerTeam);
+        }
+        this.jpaQueryFactory = jpaQueryFactory;
+        this.em = em;
+        this.countQueryMetrics = countQueryMetrics;
+        this.teamStatistics = teamStatistics;
+        this.membersPerTeam = membersPerTeam;
+    }
+
+    /**
+     * 팀 목록 + 팀별 회원 페이징
+     * - 컬렉션 페치 조인은 메모리에서 페이징하므로 사용하지 않는다.
+     * - 팀 페이지를 먼저 조회하고, 그 팀들의 회원을 IN 절로 한번에 조회해서 조립 (팀 수 만큼의 N+1 없음)
+     * - 팀마다 회원은 최대 membersPerTeam 명 (team.search.members-per-team), 더 있으면 hasMoreMembers
+     *   팀당 membersPerTeam + 1 건까지만 DB 에서 읽는다.
+     * - 엔티티가 아닌 DTO 로 조회하므로 영속성 컨텍스트에 올라가지 않는다.
+     */
+    @Override
+    public Page<TeamMembersDto> searchTeamsWithMembers(Pageable pageable) {
+        // 팀 쿼리
+        List<TeamMembersDto> teams = jpaQueryFactory
+                .select(new QTeamMembersDto(team.id, team.name))
+                .from(team)
+                .orderBy(team.id.asc())
+                .offset(pageable.getOffset())
+                .limit(pageable.getPageSize())
+                .fetch();
+
+        // 회원 쿼리 (IN 배치)
+        Map<Long, TeamMembersDto> teamById = new LinkedHashMap<>();
+        for (TeamMembersDto dto : teams) {
+            teamById.put(dto.getTeamId(), dto);
+        }
+
+        List<Long> teamIds = new ArrayList<>(teamById.keySet());
+        for (int from = 0; from < teamIds.size(); from += IN_BATCH_SIZE) {
+            List<Long> batch = teamIds.subList(from, Math.min(from + IN_BATCH_SIZE, teamIds.size()));
+
+            for (TeamMemberDto memberDto : findMembersPerTeam(batch, membersPerTeam + 1)) {
+                TeamMembersDto teamDto = teamById.get(memberDto.getTeamId());
+                if (teamDto.getMembers().size() < membersPerTeam) {
+                    teamDto.getMembers().add(memberDto);
+                } else {
+                    teamDto.setHasMoreMembers(true);
+                }
+            }
+        }
+
+        // 카운트 쿼리
+        return countQueryMetrics.getPage(teams, pageable, () -> {
+            Long count = jpaQueryFactory
+                    .select(team.count())
+                    .from(team)
+                    .fetchOne();
+            return count == null ? 0 : count;
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<TeamMemberDto> findMembersPerTeam(List<Long> teamIds, int limit) {
+        List<Object[]> rows = em.createNativeQuery(MEMBERS_PER_TEAM_SQL)
+                .setParameter("teamIds", teamIds)
+                .setParameter("limit", limit)
+                .getResultList();
+
+        List<TeamMemberDto> members = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            members.add(new TeamMemberDto(((Number) row[0]).longValue(), (String) row[1],
+                    ((Number) row[2]).intValue(), ((Number) row[3]).longValue()));
+        }
+        return members;
+    }
+
+    /**
+     * 팀별 회원 나이 통계
+     * - group by 스캔 대신 증분 갱신되는 메모리 집계(TeamStatistics)에서 조회 (SQL 실행 없음)
+     */
+    @Override
+    public List<TeamStatisticsDto> findTeamStatistics() {
+        return teamStatistics.findAll();
+    }
+}
@@ -0,0 +1,219 @@
+package com.joonsang.example.QueryDSL.repository;
+
+import com.joonsang.example.QueryDSL.dto.TeamStatisticsDto;
+import com.querydsl.core.Tuple;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static com.joonsang.example.QueryDSL.entity.QMember.member;
+import static com.joonsang.example.QueryDSL.entity.QTeam.team;
+
+/**
+ * 팀별 회원 나이 통계 (count / sum / avg / max / min) 메모리 집계
+ * - 조회할 때마다 group by 전체 스캔을 하지 않도록, 커밋된 변경분(TeamStatisticsEventListener)으로 증분 갱신
+ * - 팀별로 나이 -> 회원 수 히스토그램을 유지해서, 삭제/변경 시에도 max/min 을 다시 스캔하지 않고 구한다.
+ * - 애플리케이션 시작 시, 그리고 벌크 연산처럼 엔티티 이벤트가 없는 변경 후에는 DB 에서 다시 집계 (rebuild)
+ * - 재집계 쿼리가 도는 동안 들어온 증분은 새 집계로 바꾼 뒤 다시 적용한다. (읽기 전에 커밋된 변경은 이미 집계에 포함)
+ *   커밋 직후 이벤트가 오기 전에 집계 쿼리가 시작되면 그 한 건은 두번 반영될 수 있다. (다음 재집계에서 바로잡힘)
+ * - 인스턴스마다 따로 가지는 메모리 집계라, 여러 인스턴스로 띄우면 다른 인스턴스에서 커밋된 변경은 재집계 전까지 보이지 않는다.
+ */
+@Slf4j
+@Component
+public class TeamStatistics {
+
+    private final JPAQueryFactory jpaQueryFactory;
+
+    private final Map<Long, TeamAgeHistogram> histograms = new HashMap<>();
+    private final Map<Long, String> teamNames = new HashMap<>();
+
+    // 재집계 중에 들어온 증분 (this 로 보호), 재집계 중이 아니면 null
+    private List<Runnable> replay;
+    private final Object rebuildLock = new Object();
+
+    private final AtomicBoolean rebuildRequested = new AtomicBoolean();
+    private final ExecutorService rebuildExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "team-statistics-rebuild");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public TeamStatistics(JPAQueryFactory jpaQueryFactory) {
+        this.jpaQueryFactory = jpaQueryFactory;
+    }
+
+    /**
+     * 팀 ID 순으로 회원이 있는 팀만 (team 내부 조인 group by 와 같은 결과)
+     */
+    public synchronized List<TeamStatisticsDto> findAll() {
+        List<TeamStatisticsDto> result = new ArrayList<>(histograms.size());
+        new TreeMap<>(histograms).forEach((teamId, histogram) -> result.add(histogram.toDto(teamId, teamNames.get(teamId))));
+        return result;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        synchronized (rebuildLock) {
+            long start = System.currentTimeMillis();
+            synchronized (this) {
+                replay = new ArrayList<>();
+            }
+
+            try {
+                List<Tuple> ages = jpaQueryFactory
+                        .select(member.team.id, member.age, member.count())
+                        .from(member)
+                        .where(member.team.isNotNull())
+                        .groupBy(member.team.id, member.age)
+                        .fetch();
+                List<Tuple> names = jpaQueryFactory
+                        .select(team.id, team.name)
+                        .from(team)
+                        .fetch();
+
+                int replayed;
+                synchronized (this) {
+                    histograms.clear();
+                    teamNames.clear();
+                    for (Tuple row : ages) {
+                        histograms.computeIfAbsent(row.get(member.team.id), id -> new TeamAgeHistogram())
+                                .add(row.get(member.age), row.get(member.count()));
+                    }
+                    for (Tuple row : names) {
+                        teamNames.put(row.get(team.id), row.get(team.name));
+                    }
+                    replay.forEach(Runnable::run);
+                    replayed = replay.size();
+                }
+
+                log.info("team statistics rebuilt: {} rows, {} replayed ({} ms)",
+                        ages.size(), replayed, System.currentTimeMillis() - start);
+            } finally {
+                synchronized (this) {
+                    replay = null;
+                }
+            }
+        }
+    }
+
+    /**
+     * 변경 전 상태를 알 수 없는 변경 (준영속 merge 등) - 백그라운드에서 재집계
+     * - 요청이 몰려도 실행 중인 재집계 외에 하나만 대기한다. (변경마다 전체 스캔하지 않음)
+     */
+    public void requestRebuild() {
+        if (!rebuildRequested.compareAndSet(false, true)) {
+            return;
+        }
+
+        rebuildExecutor.execute(() -> {
+            rebuildRequested.set(false);
+            try {
+                rebuild();
+            } catch (RuntimeException e) {
+                log.warn("team statistics rebuild failed", e);
+            }
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rebuildExecutor.shutdownNow();
+    }
+
+    /**
+     * 현재 트랜잭션이 커밋된 후 다시 집계 (트랜잭션 밖이면 바로)
+     */
+    public void rebuildAfterCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            rebuild();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                rebuild();
+            }
+        });
+    }
+
+    synchronized void addMember(Long teamId, int age) {
+        if (teamId != null) {
+            apply(() -> histograms.computeIfAbsent(teamId, id -> new TeamAgeHistogram()).add(age, 1));
+        }
+    }
+
+    synchronized void removeMember(Long teamId, int age) {
+        if (teamId == null) {
+            return;
+        }
+
+        apply(() -> {
+            TeamAgeHistogram histogram = histograms.get(teamId);
+            if (histogram != null && histogram.add(age, -1) == 0) {
+                histograms.remove(teamId);
+            }
+        });
+    }
+
+    synchronized void putTeamName(Long teamId, String name) {
+        apply(() -> teamNames.put(teamId, name));
+    }
+
+    synchronized void removeTeam(Long teamId) {
+        apply(() -> teamNames.remove(teamId));
+    }
+
+    /**
+     * 지금 집계에 반영하고, 재집계 중이면 새 집계에도 다시 적용하도록 남긴다. (this 잠금 안에서 호출)
+     */
+    private void apply(Runnable change) {
+        change.run();
+        if (replay != null) {
+            replay.add(change);
+        }
+    }
+
+    /**
+     * 팀 하나의 나이 -> 회원 수
+     */
+    private static class TeamAgeHistogram {
+        private final TreeMap<Integer, Long> counts = new TreeMap<>();
+        private long count;
+        private long sum;
+
+        /**
+         * @return 변경 후 팀 회원 수
+         */
+        long add(int age, long delta) {
+            Long updated = counts.merge(age, delta, Long::sum);
+            if (updated != null && updated <= 0) {
+                counts.remove(age);
+            }
+            count += delta;
+            sum += age * delta;
+            return count;
+        }
+
+        TeamStatisticsDto toDto(Long teamId, String teamName) {
+            return new TeamStatisticsDto(teamId, teamName, count, sum,
+                    count == 0 ? 0 : (double) sum / count,
+                    counts.isEmpty() ? 0 : counts.lastKey(),
+                    counts.isEmpty() ? 0 : counts.firstKey());
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.joonsang.example.QueryDSL.repository;
+
+import com.joonsang.example.QueryDSL.entity.Member;
+import com.joonsang.example.QueryDSL.entity.Team;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.internal.SessionFactoryImpl;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.proxy.HibernateProxy;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManagerFactory;
+
+/**
+ * Member / Team 변경을 TeamStatistics 에 반영
+ * - Hibernate POST_COMMIT_* 이벤트라 커밋된 변경만 반영된다. (롤백된 트랜잭션은 무시)
+ * - 수정은 변경 전 상태(oldState)를 빼고 변경 후 상태를 더한다. (나이 변경, changeTeam)
+ * - 변경 전 상태를 알 수 없으면(준영속 merge 등) 백그라운드 재집계를 요청 (커밋 쓰레드에서 전체 스캔하지 않음)
+ */
+@Component
+public class TeamStatisticsEventListener
+        implements PostCommitInsertEventListener, PostCommitUpdateEventListener, PostCommitDeleteEventListener {
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final TeamStatistics teamStatistics;
+
+    public TeamStatisticsEventListener(EntityManagerFactory entityManagerFactory, TeamStatistics teamStatistics) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.teamStatistics = teamStatistics;
+    }
+
+    @PostConstruct
+    public void register() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImpl.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, this);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (event.getEntity() instanceof Member) {
+            Member member = (Member) event.getEntity();
+            teamStatistics.addMember(teamIdOf(member.getTeam()), member.getAge());
+        } else if (event.getEntity() instanceof Team) {
+            Team team = (Team) event.getEntity();
+            teamStatistics.putTeamName(team.getId(), team.getName());
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (event.getEntity() instanceof Member) {
+            if (event.getOldState() == null) {
+                teamStatistics.requestRebuild();
+                return;
+            }
+
+            EntityPersister persister = event.getPersister();
+            Object oldTeam = event.getOldState()[propertyIndex(persister, "team")];
+            int oldAge = (Integer) event.getOldState()[propertyIndex(persister, "age")];
+
+            Member member = (Member) event.getEntity();
+            teamStatistics.removeMember(teamIdOf(oldTeam), oldAge);
+            teamStatistics.addMember(teamIdOf(member.getTeam()), member.getAge());
+        } else if (event.getEntity() instanceof Team) {
+            Team team = (Team) event.getEntity();
+            teamStatistics.putTeamName(team.getId(), team.getName());
+        }
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (event.getEntity() instanceof Member) {
+            EntityPersister persister = event.getPersister();
+            Object oldTeam = event.getDeletedState()[propertyIndex(persister, "team")];
+            int oldAge = (Integer) event.getDeletedState()[propertyIndex(persister, "age")];
+            teamStatistics.removeMember(teamIdOf(oldTeam), oldAge);
+        } else if (event.getEntity() instanceof Team) {
+            teamStatistics.removeTeam((Long) event.getId());
+        }
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+    }
+
+    @Override
+    public boolean requiresPostCommitHanding(EntityPersister persister) {
+        Class<?> entityClass = persister.getMappedClass();
+        return entityClass == Member.class || entityClass == Team.class;
+    }
+
+    private static int propertyIndex(EntityPersister persister, String property) {
+        return persister.getEntityMetamodel().getPropertyIndex(property);
+    }
+
+    /**
+     * 프록시를 초기화하지 않고 팀 ID 를 얻는다.
+     */
+    static Long teamIdOf(Object team) {
+        if (team == null) {
+            return null;
+        }
+        if (team instanceof HibernateProxy) {
+            return (Long) ((HibernateProxy) team).getHibernateLazyInitializer().getIdentifier();
+        }
+        return ((Team) team).getId();
+    }
+}
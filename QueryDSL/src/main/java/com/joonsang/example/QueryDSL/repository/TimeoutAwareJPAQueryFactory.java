@@ -0,0 +1,23 @@
+package com.joonsang.example.QueryDSL.repository;
+
+import com.querydsl.jpa.impl.JPAQuery;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+
+import javax.persistence.EntityManager;
+
+/**
+ * 만드는 조회 쿼리마다 현재 시간 제한(QueryTimeouts)을 힌트로 붙이는 JPAQueryFactory
+ * - select / selectFrom / from 은 모두 query() 를 거친다.
+ * - update / delete 는 청크 단위로 나눠서 실행하므로(MemberBulkOperations) 제한하지 않는다.
+ */
+public class TimeoutAwareJPAQueryFactory extends JPAQueryFactory {
+
+    public TimeoutAwareJPAQueryFactory(EntityManager entityManager) {
+        super(entityManager);
+    }
+
+    @Override
+    public JPAQuery<?> query() {
+        return QueryTimeouts.apply(super.query());
+    }
+}
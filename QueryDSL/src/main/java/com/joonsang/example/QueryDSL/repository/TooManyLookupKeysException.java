@@ -0,0 +1,12 @@
+package com.joonsang.example.QueryDSL.repository;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class TooManyLookupKeysException extends IllegalArgumentException {
+
+    public TooManyLookupKeysException(int size, int maxKeys) {
+        super("한번에 조회할 수 있는 키는 최대 " + maxKeys + "개 입니다. size=" + size);
+    }
+}
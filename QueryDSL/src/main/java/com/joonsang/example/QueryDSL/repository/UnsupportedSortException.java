@@ -0,0 +1,14 @@
+package com.joonsang.example.QueryDSL.repository;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import java.util.Collection;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class UnsupportedSortException extends IllegalArgumentException {
+
+    public UnsupportedSortException(String property, Collection<String> sortable) {
+        super("정렬할 수 없는 속성 입니다. sort=" + property + ", 가능한 속성=" + sortable);
+    }
+}
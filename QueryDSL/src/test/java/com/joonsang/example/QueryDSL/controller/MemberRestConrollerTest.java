@@ -0,0 +1,73 @@
+package com.joonsang.example.QueryDSL.controller;
+
+import com.joonsang.example.QueryDSL.repository.MemberChangeListener;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class MemberRestConrollerTest {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    MemberChangeListener memberChangeListener;
+
+    @Test
+    @DisplayName("조건부 GET - 데이터 버전이 같으면 304, 변경 후에는 200")
+    public void conditionalGet() throws Exception {
+        String etag = mockMvc.perform(get("/v2/members").param("teamName", "teamA").param("size", "5"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/v2/members").param("teamName", "teamA").param("size", "5")
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        // 트랜잭션 밖의 변경 -> 바로 버전 증가
+        memberChangeListener.onBulkChange();
+
+        String newEtag = mockMvc.perform(get("/v2/members").param("teamName", "teamA").param("size", "5")
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(newEtag).isNotEqualTo(etag);
+    }
+
+    @Test
+    @DisplayName("조건부 GET - Last-Modified 를 보내지 않고, If-Modified-Since 는 무시")
+    public void noLastModified() throws Exception {
+        mockMvc.perform(get("/v1/members").param("teamName", "teamA"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.LAST_MODIFIED));
+
+        memberChangeListener.onBulkChange();
+
+        // 초 단위 날짜로는 방금 변경을 구분할 수 없으므로 무시해야 한다.
+        mockMvc.perform(get("/v1/members").param("teamName", "teamA")
+                        .header(HttpHeaders.IF_MODIFIED_SINCE, "Thu, 01 Jan 2099 00:00:00 GMT"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("커서 페이징 - size 가 1 미만이면 400, 너무 크면 최대 페이지 크기로 조회")
+    public void cursorPageSize() throws Exception {
+        mockMvc.perform(get("/v4/members").param("size", "0"))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get("/v4/members").param("size", String.valueOf(Integer.MAX_VALUE)))
+                .andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,112 @@
+package com.joonsang.example.QueryDSL.datasource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 로컬 H2 인메모리 DB 두 개를 primary / replica 로 사용
+ */
+class DataSourceRoutingTest {
+
+    DataSource dataSource;
+
+    @BeforeEach
+    public void before() {
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(DataSourceType.PRIMARY, new DriverManagerDataSource("jdbc:h2:mem:primary;DB_CLOSE_DELAY=-1", "sa", ""));
+        targets.put(DataSourceType.REPLICA, new DriverManagerDataSource("jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1", "sa", ""));
+
+        RoutingDataSource routingDataSource = new RoutingDataSource();
+        routingDataSource.setTargetDataSources(targets);
+        routingDataSource.afterPropertiesSet();
+        dataSource = new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    @AfterEach
+    public void after() {
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    @Test
+    @DisplayName("기본은 primary, 검색 구간은 replica")
+    public void route() throws Exception {
+        assertThat(connectedUrl()).contains("primary");
+
+        DataSourceType previous = DataSourceRouting.markReplica();
+        try {
+            assertThat(connectedUrl()).contains("replica");
+        } finally {
+            DataSourceRouting.restore(previous);
+        }
+
+        assertThat(connectedUrl()).contains("primary");
+    }
+
+    @Test
+    @DisplayName("읽기 전용 트랜잭션은 replica")
+    public void readOnlyTransaction() throws Exception {
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertThat(connectedUrl()).contains("replica");
+    }
+
+    @Test
+    @DisplayName("primary 강제 (read-after-write)")
+    public void forcePrimary() {
+        DataSourceType previous = DataSourceRouting.markReplica();
+        try {
+            String url = DataSourceRouting.primary(this::connectedUrlUnchecked);
+            assertThat(url).contains("primary");
+        } finally {
+            DataSourceRouting.restore(previous);
+        }
+    }
+
+    @Test
+    @DisplayName("다른 쓰레드로 라우팅 정보 전달")
+    public void propagate() {
+        AtomicReference<String> url = new AtomicReference<>();
+
+        DataSourceType previous = DataSourceRouting.markReplica();
+        Runnable task;
+        try {
+            task = DataSourceRouting.propagate(() -> url.set(connectedUrlUnchecked()));
+        } finally {
+            DataSourceRouting.restore(previous);
+        }
+
+        CompletableFuture.runAsync(task).join();
+        assertThat(url.get()).contains("replica");
+    }
+
+    private String connectedUrl() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            return connection.getMetaData().getURL();
+        }
+    }
+
+    private String connectedUrlUnchecked() {
+        try {
+            return connectedUrl();
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.joonsang.example.QueryDSL.datasource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 로컬 H2 인메모리 DB 사용
+ */
+class StatementScopeTest {
+
+    DataSource dataSource = new StatementTrackingDataSourceDecorator()
+            .decorate("dataSource", new DriverManagerDataSource("jdbc:h2:mem:scope;DB_CLOSE_DELAY=-1", "sa", ""));
+
+    @AfterEach
+    public void after() {
+        StatementScope.end(null);
+    }
+
+    @Test
+    @DisplayName("구간 안에서 만든 Statement 는 close 전까지 등록")
+    public void track() throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("select 1")) {
+            // 구간 밖
+            assertThat(StatementScope.current()).isNull();
+        }
+
+        StatementScope.begin(0);
+        StatementScope scope = StatementScope.current();
+        try (Connection connection = dataSource.getConnection()) {
+            PreparedStatement statement = connection.prepareStatement("select 1");
+            assertThat(scope.runningCount()).isEqualTo(1);
+
+            try (ResultSet resultSet = statement.executeQuery()) {
+                assertThat(resultSet.next()).isTrue();
+            }
+            statement.close();
+            assertThat(scope.runningCount()).isZero();
+        }
+        assertThat(scope.remainingMillis()).isNull();
+    }
+
+    @Test
+    @DisplayName("다른 쓰레드에서 실행 중인 Statement 취소")
+    public void cancel() throws Exception {
+        StatementScope.begin(0);
+        StatementScope scope = StatementScope.current();
+
+        CompletableFuture<Void> query = CompletableFuture.runAsync(StatementScope.propagate(() -> {
+            try (Connection connection = dataSource.getConnection();
+                 PreparedStatement statement = connection.prepareStatement(
+                         "select sum(x) from system_range(1, 10000000000)")) {
+                statement.executeQuery();
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        }));
+
+        long waitUntil = System.currentTimeMillis() + 5000;
+        while (scope.runningCount() == 0 && System.currentTimeMillis() < waitUntil) {
+            Thread.sleep(10);
+        }
+        Thread.sleep(100);
+
+        assertThat(scope.cancel()).isEqualTo(1);
+        assertThat(scope.isCancelled()).isTrue();
+        assertThatThrownBy(() -> query.get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasRootCauseInstanceOf(SQLException.class);
+        assertThat(scope.getCancelledCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("하위 구간 취소는 하위 구간의 Statement 만, 상위 구간 취소는 하위 구간 Statement 까지")
+    public void child() throws Exception {
+        StatementScope.begin(0);
+        StatementScope parent = StatementScope.current();
+        StatementScope child = StatementScope.child(parent);
+
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement own = connection.prepareStatement("select 1")) {
+            PreparedStatement counted = child.wrap(() -> connection.prepareStatement("select 2")).call();
+            assertThat(parent.runningCount()).isEqualTo(2);
+            assertThat(child.runningCount()).isEqualTo(1);
+
+            assertThat(child.cancel()).isEqualTo(1);
+            assertThat(child.isCancelled()).isTrue();
+            assertThat(parent.isCancelled()).isFalse();
+            assertThat(parent.getCancelledCount()).isZero();
+
+            counted.close();
+            assertThat(parent.runningCount()).isEqualTo(1);
+        }
+
+        assertThatThrownBy(() -> child.wrap(() -> "not run").call())
+                .isInstanceOf(CancellationException.class);
+
+        StatementScope other = StatementScope.child(parent);
+        parent.cancel();
+        assertThat(other.isCancelled()).isTrue();
+    }
+}
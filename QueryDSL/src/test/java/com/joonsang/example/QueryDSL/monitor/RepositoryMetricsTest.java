@@ -0,0 +1,65 @@
+package com.joonsang.example.QueryDSL.monitor;
+
+import com.joonsang.example.QueryDSL.dto.MemberSearchCondition;
+import com.joonsang.example.QueryDSL.entity.Member;
+import com.joonsang.example.QueryDSL.entity.Team;
+import com.joonsang.example.QueryDSL.repository.MemberRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.transaction.Transactional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Transactional
+class RepositoryMetricsTest {
+
+    @PersistenceContext
+    EntityManager em;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    MeterRegistry registry;
+
+    @Test
+    @DisplayName("메서드, 조건 조합별 실행 시간 / 반환 건수 / 카운트 쿼리 생략")
+    public void searchPageMetrics() {
+        Team teamA = new Team("metricTeamA");
+        em.persist(teamA);
+        for (int i = 0; i < 3; i++) {
+            em.persist(new Member("metricMember" + i, 20 + i, teamA));
+        }
+
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("metricTeamA");
+        condition.setAgeGoe(20);
+
+        double skippedBefore = countQuery("skipped");
+        memberRepository.searchPageSimple3(condition, PageRequest.of(0, 10));
+
+        assertThat(registry.get("repository.query")
+                .tag("method", "searchPageSimple3")
+                .tag("shape", "teamName+ageGoe")
+                .tag("outcome", "success")
+                .timer().count()).isGreaterThanOrEqualTo(1);
+        assertThat(registry.get("repository.query.rows")
+                .tag("method", "searchPageSimple3")
+                .summary().max()).isGreaterThanOrEqualTo(3);
+
+        // 첫 페이지에서 컨텐츠가 페이지 크기보다 작으면 카운트 쿼리 생략
+        assertThat(countQuery("skipped")).isEqualTo(skippedBefore + 1);
+    }
+
+    private double countQuery(String result) {
+        return registry.get("repository.count.query").tag("result", result).counter().count();
+    }
+}
@@ -0,0 +1,47 @@
+package com.joonsang.example.QueryDSL.monitor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * SQL 실행 횟수 검증
+ * - 예) assertThatSql(recorder, () -> memberRepository.search(condition)).executesAtMost(2).hasNoNPlusOne();
+ */
+public class SqlStatementAssert {
+
+    private final SqlStatistics statistics;
+    private final int nPlusOneThreshold;
+
+    private SqlStatementAssert(SqlStatistics statistics, int nPlusOneThreshold) {
+        this.statistics = statistics;
+        this.nPlusOneThreshold = nPlusOneThreshold;
+    }
+
+    public static SqlStatementAssert assertThatSql(SqlStatementRecorder recorder, Runnable runnable) {
+        return new SqlStatementAssert(recorder.record("test", runnable), recorder.getNPlusOneThreshold());
+    }
+
+    public SqlStatementAssert executesAtMost(int max) {
+        assertThat(statistics.getStatementCount())
+                .as("SQL 실행 횟수 %s", statistics)
+                .isLessThanOrEqualTo(max);
+        return this;
+    }
+
+    public SqlStatementAssert hasNoNPlusOne() {
+        assertThat(statistics.getNPlusOneSuspects(nPlusOneThreshold))
+                .as("N+1 의심 SQL")
+                .isEmpty();
+        return this;
+    }
+
+    public SqlStatementAssert hasNPlusOne() {
+        assertThat(statistics.getNPlusOneSuspects(nPlusOneThreshold))
+                .as("N+1 의심 SQL")
+                .isNotEmpty();
+        return this;
+    }
+
+    public SqlStatistics statistics() {
+        return statistics;
+    }
+}
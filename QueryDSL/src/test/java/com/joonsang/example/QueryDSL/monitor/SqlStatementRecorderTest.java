@@ -0,0 +1,97 @@
+package com.joonsang.example.QueryDSL.monitor;
+
+import com.joonsang.example.QueryDSL.dto.MemberSearchCondition;
+import com.joonsang.example.QueryDSL.entity.Member;
+import com.joonsang.example.QueryDSL.entity.Team;
+import com.joonsang.example.QueryDSL.repository.MemberRepository;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.transaction.Transactional;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.joonsang.example.QueryDSL.entity.QTeam.team;
+import static com.joonsang.example.QueryDSL.monitor.SqlStatementAssert.assertThatSql;
+
+@SpringBootTest
+@Transactional
+class SqlStatementRecorderTest {
+
+    @PersistenceContext
+    EntityManager em;
+
+    @Autowired
+    SqlStatementRecorder recorder;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    JPAQueryFactory queryFactory;
+
+    @BeforeEach
+    public void before() {
+        queryFactory = new JPAQueryFactory(em);
+
+        for (int i = 0; i < 4; i++) {
+            Team team = new Team("team" + i);
+            em.persist(team);
+            em.persist(new Member("member" + i, 10 * i, team));
+        }
+
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    @DisplayName("컬렉션 지연 로딩 N+1 감지")
+    public void detectNPlusOne() {
+        assertThatSql(recorder, () -> {
+            List<Team> teams = queryFactory.selectFrom(team).fetch();
+            for (Team t : teams) {
+                t.getMembers().size();
+            }
+        }).hasNPlusOne();
+    }
+
+    @Test
+    @DisplayName("페치 조인은 1번")
+    public void fetchJoin() {
+        assertThatSql(recorder, () -> {
+            List<Team> teams = queryFactory.selectFrom(team).distinct().leftJoin(team.members).fetchJoin().fetch();
+            for (Team t : teams) {
+                t.getMembers().size();
+            }
+        }).executesAtMost(1).hasNoNPlusOne();
+    }
+
+    @Test
+    @DisplayName("검색은 팀 ID 조회 + 검색 쿼리 이내")
+    public void searchBudget() {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("team1");
+
+        assertThatSql(recorder, () -> memberRepository.search(condition))
+                .executesAtMost(2)
+                .hasNoNPlusOne();
+    }
+
+    @Test
+    @DisplayName("일괄 조회의 IN 절 청크는 병렬로 여러 번 실행되어도 N+1 이 아님")
+    public void batchLookup() {
+        List<Long> ids = new ArrayList<>();
+        for (long id = 1; id <= 2000; id++) {
+            ids.add(id);
+        }
+
+        assertThatSql(recorder, () -> memberRepository.lookupByIds(ids))
+                .executesAtMost(4)      // member.lookup.chunk-size = 500
+                .hasNoNPlusOne();
+    }
+}
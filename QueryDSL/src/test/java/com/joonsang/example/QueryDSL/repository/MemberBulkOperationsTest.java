@@ -0,0 +1,100 @@
+package com.joonsang.example.QueryDSL.repository;
+
+import com.joonsang.example.QueryDSL.dto.MemberSearchCondition;
+import com.joonsang.example.QueryDSL.entity.Member;
+import com.joonsang.example.QueryDSL.entity.Team;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.transaction.Transactional;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 테스트 트랜잭션 안에서 호출되므로 청크가 테스트 트랜잭션에 참여한다. (커밋 없이 롤백)
+ */
+@SpringBootTest(properties = "member.bulk.chunk-size=3")
+@Transactional
+class MemberBulkOperationsTest {
+
+    @PersistenceContext
+    EntityManager em;
+
+    @Autowired
+    MemberBulkOperations memberBulkOperations;
+
+    @Test
+    @DisplayName("member.bulk.chunk-size 가 1 미만이면 시작 시 실패")
+    public void invalidChunkSize() {
+        assertThatThrownBy(() -> new MemberBulkOperations(null, null, null, null, null, null, 0))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("member.bulk.chunk-size");
+    }
+
+    @Test
+    @DisplayName("벌크 나이 증가 - 청크 단위 실행 + 영속성 컨텍스트 동기화")
+    public void increaseAge() {
+        Team teamA = new Team("bulkTeamA");
+        Team teamB = new Team("bulkTeamB");
+        em.persist(teamA);
+        em.persist(teamB);
+
+        List<Member> members = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            Member member = new Member("bulkMember" + i, 10, i % 2 == 0 ? teamA : teamB);
+            em.persist(member);
+            members.add(member);
+        }
+
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("bulkTeamA");
+
+        List<BulkProgress> progresses = new ArrayList<>();
+        long affected = memberBulkOperations.increaseAge(condition, 5, progresses::add);
+
+        assertThat(affected).isEqualTo(5);
+        assertThat(progresses).hasSizeGreaterThan(1);
+        assertThat(progresses.get(progresses.size() - 1).isCompleted()).isTrue();
+        assertThat(progresses.get(progresses.size() - 1).getAffectedRows()).isEqualTo(5);
+
+        // clear 되었으므로 DB 에서 다시 조회
+        assertThat(em.contains(members.get(0))).isFalse();
+        assertThat(em.find(Member.class, members.get(0).getId()).getAge()).isEqualTo(15);
+        assertThat(em.find(Member.class, members.get(1).getId()).getAge()).isEqualTo(10);
+    }
+
+    @Test
+    @DisplayName("벌크 팀 이동 / 삭제")
+    public void moveToTeamAndDelete() {
+        Team teamA = new Team("bulkTeamA");
+        Team teamB = new Team("bulkTeamB");
+        em.persist(teamA);
+        em.persist(teamB);
+        for (int i = 0; i < 7; i++) {
+            em.persist(new Member("bulkMember" + i, i, teamA));
+        }
+
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("bulkTeamA");
+        condition.setAgeGoe(4);
+
+        assertThat(memberBulkOperations.moveToTeam(condition, teamB.getId(), BulkProgressListener.NONE)).isEqualTo(3);
+
+        condition.setTeamName("bulkTeamB");
+        condition.setAgeGoe(null);
+        assertThat(memberBulkOperations.delete(condition, BulkProgressListener.NONE)).isEqualTo(3);
+
+        condition.setTeamName("bulkTeamA");
+        assertThat(memberBulkOperations.delete(condition, BulkProgressListener.NONE)).isEqualTo(4);
+
+        assertThatThrownBy(() -> memberBulkOperations.moveToTeam(condition, -1L, BulkProgressListener.NONE))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,108 @@
+package com.joonsang.example.QueryDSL.repository;
+
+import com.joonsang.example.QueryDSL.dto.MemberSearchCondition;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MemberCountCacheTest {
+
+    @Test
+    @DisplayName("같은 조건은 한번만 카운트, \"\" 와 null 은 같은 조건")
+    public void hit() {
+        MemberCountCache cache = new MemberCountCache(10, 1000, Clock.systemUTC());
+        AtomicInteger loads = new AtomicInteger();
+
+        MemberSearchCondition condition1 = condition("", "teamA");
+        MemberSearchCondition condition2 = condition(null, "teamA");
+
+        assertThat(cache.getCount(condition1, () -> { loads.incrementAndGet(); return 5L; })).isEqualTo(5);
+        assertThat(cache.getCount(condition2, () -> { loads.incrementAndGet(); return 7L; })).isEqualTo(5);
+
+        assertThat(loads.get()).isEqualTo(1);
+        assertThat(cache.getHitCount()).isEqualTo(1);
+        assertThat(cache.getMissCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("TTL 이 지나면 다시 카운트")
+    public void ttl() {
+        MutableClock clock = new MutableClock();
+        MemberCountCache cache = new MemberCountCache(10, 1000, clock);
+        MemberSearchCondition condition = condition(null, "teamA");
+
+        cache.getCount(condition, () -> 5L);
+        clock.plus(Duration.ofMillis(1001));
+
+        assertThat(cache.getIfPresent(condition)).isNull();
+        assertThat(cache.getCount(condition, () -> 6L)).isEqualTo(6);
+    }
+
+    @Test
+    @DisplayName("크기 제한을 넘으면 가장 오래 사용하지 않은 조건부터 제거")
+    public void lru() {
+        MemberCountCache cache = new MemberCountCache(2, 1000, Clock.systemUTC());
+        MemberSearchCondition teamA = condition(null, "teamA");
+        MemberSearchCondition teamB = condition(null, "teamB");
+        MemberSearchCondition teamC = condition(null, "teamC");
+
+        cache.getCount(teamA, () -> 1L);
+        cache.getCount(teamB, () -> 2L);
+        cache.getIfPresent(teamA);
+        cache.getCount(teamC, () -> 3L);
+
+        assertThat(cache.getIfPresent(teamA)).isEqualTo(1L);
+        assertThat(cache.getIfPresent(teamB)).isNull();
+        assertThat(cache.getEvictionCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("무효화")
+    public void invalidate() {
+        MemberCountCache cache = new MemberCountCache(10, 1000, Clock.systemUTC());
+        MemberSearchCondition condition = condition(null, "teamA");
+
+        cache.getCount(condition, () -> 5L);
+        cache.invalidateAll();
+
+        assertThat(cache.size()).isZero();
+        assertThat(cache.getCount(condition, () -> 6L)).isEqualTo(6);
+    }
+
+    private MemberSearchCondition condition(String username, String teamName) {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setUsername(username);
+        condition.setTeamName(teamName);
+        return condition;
+    }
+
+    private static class MutableClock extends Clock {
+        private Instant now = Instant.now();
+
+        void plus(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneId.systemDefault();
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.joonsang.example.QueryDSL.repository;
+
+import com.joonsang.example.QueryDSL.dto.MemberSearchCondition;
+import com.joonsang.example.QueryDSL.entity.Member;
+import com.joonsang.example.QueryDSL.entity.Team;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.transaction.Transactional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Transactional
+class MemberCountQueryPlannerTest {
+
+    @PersistenceContext
+    EntityManager em;
+
+    @Autowired
+    TeamRepository teamRepository;
+
+    MemberCountQueryPlanner planner;
+
+    @BeforeEach
+    public void before() {
+        planner = new MemberCountQueryPlanner(new JPAQueryFactory(em), teamRepository);
+
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+        em.persist(teamA);
+        em.persist(teamB);
+
+        em.persist(new Member("member1", 10, teamA));
+        em.persist(new Member("member2", 20, teamA));
+        em.persist(new Member("member3", 30, teamB));
+        em.persist(new Member("member4", 40, teamB));
+        em.persist(new Member("member5", 50));
+    }
+
+    @Test
+    @DisplayName("팀 조건이 없으면 조인 없이 id 카운트")
+    public void noTeamCondition() {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setAgeGoe(20);
+
+        String jpql = planner.plan(condition).toString();
+
+        assertThat(jpql).contains("count(member1.id)");
+        assertThat(jpql).doesNotContainIgnoringCase("join");
+        assertThat(planner.count(condition)).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("팀 조건은 팀 ID 로 바꿔서 조인 없이 비교")
+    public void teamCondition() {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("teamB");
+
+        String jpql = planner.plan(condition).toString();
+
+        assertThat(jpql).contains("count(member1.id)");
+        assertThat(jpql).contains("member1.team.id");
+        assertThat(jpql).doesNotContainIgnoringCase("join");
+        assertThat(planner.count(condition)).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("없는 팀명이면 0")
+    public void unknownTeam() {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("teamZ");
+
+        assertThat(planner.count(condition)).isZero();
+    }
+}
@@ -1,5 +1,6 @@
 package com.joonsang.example.QueryDSL.repository;
 
+import com.joonsang.example.QueryDSL.dto.MemberCursorPage;
 import com.joonsang.example.QueryDSL.dto.MemberSearchCondition;
 import com.joonsang.example.QueryDSL.dto.MemberTeamDto;
 import com.joonsang.example.QueryDSL.entity.Member;
@@ -13,6 +14,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 
 import javax.persistence.EntityManager;
 import javax.persistence.EntityManagerFactory;
@@ -20,7 +23,11 @@ import javax.persistence.PersistenceContext;
 import javax.persistence.PersistenceUnit;
 import javax.transaction.Transactional;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.*;
 
@@ -94,6 +101,23 @@ class MemberRepositoryTest {
     }
 
 
+    @Test
+    @DisplayName("최대 건수 제한 검색 - 넘으면 예외")
+    public void searchRowLimit() {
+        Team teamA = new Team("rowLimitTeam");
+        em.persist(teamA);
+        em.persist(new Member("member1", 10, teamA));
+        em.persist(new Member("member2", 20, teamA));
+
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("rowLimitTeam");
+
+        assertThat(memberRepository.search(condition, 2)).hasSize(2);
+        assertThatThrownBy(() -> memberRepository.search(condition, 1))
+                .isInstanceOf(RowLimitExceededException.class);
+    }
+
+
     @Test
     @DisplayName("QueryDSL 페이징 연동")
     public void paging1() {
@@ -121,4 +145,176 @@ class MemberRepositoryTest {
         assertThat(result.getContent()).extracting("username").containsExactly("member1","member2","member3");
     }
 
+    @Test
+    @DisplayName("QueryDSL 페이징 연동 - 정렬 (같은 값은 member_id 순)")
+    public void pagingSort() {
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+        em.persist(teamA);
+        em.persist(teamB);
+
+        em.persist(new Member("sort1", 10, teamA));
+        em.persist(new Member("sort2", 20, teamB));
+        em.persist(new Member("sort3", 20, teamA));
+        em.persist(new Member("sort4", 40, teamB));
+
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setUsernamePrefix("sort");
+
+        Page<MemberTeamDto> byAge = memberRepository.searchPageSimple(condition,
+                PageRequest.of(0, 3, Sort.by(Sort.Order.desc("age"))));
+        assertThat(byAge.getContent()).extracting("username").containsExactly("sort4", "sort3", "sort2");
+
+        Page<MemberTeamDto> byTeamName = memberRepository.searchPageComplex(condition,
+                PageRequest.of(0, 10, Sort.by("teamName", "username")));
+        assertThat(byTeamName.getContent()).extracting("username").containsExactly("sort1", "sort3", "sort2", "sort4");
+        assertThat(byTeamName.getTotalElements()).isEqualTo(4);
+
+        assertThatThrownBy(() -> memberRepository.searchPageSimple(condition, PageRequest.of(0, 3, Sort.by("password"))))
+                .isInstanceOf(UnsupportedSortException.class);
+    }
+
+    @Test
+    @DisplayName("커서(Keyset) 페이징")
+    public void cursorPaging() {
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+        em.persist(teamA);
+        em.persist(teamB);
+
+        Member member1 = new Member("member1", 10, teamA);
+        Member member2 = new Member("member2", 20, teamA);
+        Member member3 = new Member("member3", 30, teamB);
+        Member member4 = new Member("member4", 40, teamB);
+
+        em.persist(member1);
+        em.persist(member2);
+        em.persist(member3);
+        em.persist(member4);
+
+        MemberSearchCondition condition = new MemberSearchCondition();
+
+        MemberCursorPage first = memberRepository.searchByCursor(condition, null, 3);
+        assertThat(first.getContent()).extracting("username").containsExactly("member1", "member2", "member3");
+        assertThat(first.isHasNext()).isTrue();
+
+        MemberCursorPage second = memberRepository.searchByCursor(condition, first.getNextCursor(), 3);
+        assertThat(second.getContent()).extracting("username").containsExactly("member4");
+        assertThat(second.isHasNext()).isFalse();
+        assertThat(second.getNextCursor()).isNull();
+    }
+
+    @Test
+    @DisplayName("데이터 내용과 전체 카운트를 별도로 조회 - 첫 페이지는 카운트 쿼리 생략")
+    public void pagingComplex() {
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+        em.persist(teamA);
+        em.persist(teamB);
+
+        Member member1 = new Member("member1", 10, teamA);
+        Member member2 = new Member("member2", 20, teamA);
+        Member member3 = new Member("member3", 30, teamB);
+        Member member4 = new Member("member4", 40, teamB);
+
+        em.persist(member1);
+        em.persist(member2);
+        em.persist(member3);
+        em.persist(member4);
+
+        MemberSearchCondition condition = new MemberSearchCondition();
+        PageRequest pageRequest = PageRequest.of(0, 10);
+
+        Page<MemberTeamDto> result = memberRepository.searchPageComplex(condition, pageRequest);
+
+        assertThat(result.getTotalElements()).isEqualTo(4);
+        assertThat(result.getContent()).extracting("username").containsExactly("member1", "member2", "member3", "member4");
+    }
+
+    @Test
+    @DisplayName("Slice 페이징 - pageSize + 1 건 조회, 카운트 쿼리 없음")
+    public void searchSlice() {
+        Team teamA = new Team("teamA");
+        em.persist(teamA);
+
+        em.persist(new Member("member1", 10, teamA));
+        em.persist(new Member("member2", 20, teamA));
+        em.persist(new Member("member3", 30, teamA));
+
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("teamA");
+
+        Slice<MemberTeamDto> first = memberRepository.searchSlice(condition, PageRequest.of(0, 2));
+        assertThat(first.getContent()).extracting("username").containsExactly("member1", "member2");
+        assertThat(first.hasNext()).isTrue();
+
+        Slice<MemberTeamDto> second = memberRepository.searchSlice(condition, PageRequest.of(1, 2));
+        assertThat(second.getContent()).extracting("username").containsExactly("member3");
+        assertThat(second.hasNext()).isFalse();
+
+        // 조건이 없으면 테이블 통계 추정치, 조건이 있고 캐시에도 없으면 알 수 없음
+        assertThat(memberRepository.estimateCount(new MemberSearchCondition())).isNotNull();
+        assertThat(memberRepository.estimateCount(condition)).isNull();
+    }
+
+    @Test
+    @DisplayName("여러 키로 일괄 조회 - 입력 순서 유지, 없는 키는 null")
+    public void lookup() {
+        Team teamA = new Team("teamA");
+        em.persist(teamA);
+
+        Member member1 = new Member("lookup1", 10, teamA);
+        Member member2 = new Member("lookup2", 20, teamA);
+        em.persist(member1);
+        em.persist(member2);
+
+        List<MemberTeamDto> byIds = memberRepository.lookupByIds(
+                Arrays.asList(member2.getId(), -1L, member1.getId(), member2.getId()));
+        assertThat(byIds).hasSize(4);
+        assertThat(byIds.get(0).getUsername()).isEqualTo("lookup2");
+        assertThat(byIds.get(1)).isNull();
+        assertThat(byIds.get(2).getUsername()).isEqualTo("lookup1");
+        assertThat(byIds.get(3).getMemberId()).isEqualTo(member2.getId());
+
+        List<MemberTeamDto> byUsernames = memberRepository.lookupByUsernames(
+                Arrays.asList("lookup1", "none", "lookup2"));
+        assertThat(byUsernames.get(0).getMemberId()).isEqualTo(member1.getId());
+        assertThat(byUsernames.get(1)).isNull();
+        assertThat(byUsernames.get(2).getTeamName()).isEqualTo("teamA");
+    }
+
+    @Test
+    @DisplayName("여러 키로 일괄 조회 - 최대 키 수 초과")
+    public void lookupTooManyKeys() {
+        List<Long> ids = new ArrayList<>();
+        for (long i = 0; i <= 10000; i++) {
+            ids.add(i);
+        }
+
+        assertThatThrownBy(() -> memberRepository.lookupByIds(ids))
+                .isInstanceOf(TooManyLookupKeysException.class);
+    }
+
+    @Test
+    @DisplayName("스트리밍 조회")
+    public void searchStream() {
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+        em.persist(teamA);
+        em.persist(teamB);
+
+        em.persist(new Member("member1", 10, teamA));
+        em.persist(new Member("member2", 20, teamA));
+        em.persist(new Member("member3", 30, teamB));
+        em.persist(new Member("member4", 40, teamB));
+
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("teamB");
+
+        try (Stream<MemberTeamDto> stream = memberRepository.searchStream(condition, 2)) {
+            List<String> usernames = stream.map(MemberTeamDto::getUsername).collect(Collectors.toList());
+            assertThat(usernames).containsExactlyInAnyOrder("member3", "member4");
+        }
+    }
+
 }
\ No newline at end of file
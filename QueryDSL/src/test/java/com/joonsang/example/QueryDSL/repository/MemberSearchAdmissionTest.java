@@ -0,0 +1,108 @@
+package com.joonsang.example.QueryDSL.repository;
+
+import com.joonsang.example.QueryDSL.dto.MemberSearchCondition;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+
+import java.time.Clock;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MemberSearchAdmissionTest {
+
+    MemberCountCache memberCountCache = new MemberCountCache(100, 60_000, Clock.systemUTC());
+    TeamStatistics teamStatistics = new TeamStatistics(null);
+    MemberRowCountEstimator rowCountEstimator = new MemberRowCountEstimator() {
+        @Override
+        public Long estimate() {
+            return 100_000L;
+        }
+    };
+
+    MemberSearchAdmission admission = new MemberSearchAdmission(memberCountCache, rowCountEstimator, teamStatistics,
+            new SimpleMeterRegistry(), 5000, 1, 0, 100, 3);
+
+    @Test
+    @DisplayName("조건 모양과 통계로 행 수 추정")
+    public void estimateRows() {
+        teamStatistics.putTeamName(1L, "teamA");
+        for (int i = 0; i < 300; i++) {
+            teamStatistics.addMember(1L, i % 100);
+        }
+
+        assertThat(admission.estimateRows(new MemberSearchCondition())).isEqualTo(100_000);
+
+        MemberSearchCondition team = new MemberSearchCondition();
+        team.setTeamName("teamA");
+        assertThat(admission.estimateRows(team)).isEqualTo(300);
+
+        MemberSearchCondition age = new MemberSearchCondition();
+        age.setAgeGoe(20);
+        age.setAgeLoe(29);
+        assertThat(admission.estimateRows(age)).isEqualTo(10_000);
+
+        // 카운트 캐시에 있으면 그 값
+        memberCountCache.getCount(age, () -> 42);
+        assertThat(admission.estimateRows(age)).isEqualTo(42);
+    }
+
+    @Test
+    @DisplayName("Page 검색 비용 - 카운트 캐시에 없으면 카운트 쿼리가 읽는 행 수 포함")
+    public void countCost() {
+        MemberSearchCondition all = new MemberSearchCondition();
+
+        assertThat(admission.cost(all, 20L, false)).isEqualTo(20);
+        assertThat(admission.cost(all, 20L, true)).isEqualTo(100_020);
+
+        memberCountCache.getCount(all, () -> 100_000);
+        assertThat(admission.cost(all, 20L, true)).isEqualTo(20);
+    }
+
+    @Test
+    @DisplayName("비싼 검색 레인이 가득 차면 429 + Retry-After, 싼 검색은 그대로 실행")
+    public void expensiveLane() throws Exception {
+        MemberSearchCondition all = new MemberSearchCondition();
+        MemberSearchCondition cheap = new MemberSearchCondition();
+        cheap.setUsername("member1");
+
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            executor.submit(() -> admission.execute(all, null, () -> {
+                started.countDown();
+                await(release);
+                return null;
+            }));
+            started.await(1, TimeUnit.SECONDS);
+            assertThat(admission.availableExpensiveSlots()).isZero();
+
+            assertThatThrownBy(() -> admission.execute(all, null, () -> "expensive"))
+                    .isInstanceOfSatisfying(SearchRejectedException.class, e ->
+                            assertThat(e.getResponseHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("3"));
+
+            assertThat(admission.execute(cheap, null, () -> "cheap")).isEqualTo("cheap");
+
+            // 페이징이면 읽는 행 수가 offset + size 로 제한되므로 싼 검색
+            assertThat(admission.execute(all, 20L, () -> "page")).isEqualTo("page");
+        } finally {
+            release.countDown();
+            executor.shutdown();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
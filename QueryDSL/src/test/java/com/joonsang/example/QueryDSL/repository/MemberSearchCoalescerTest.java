@@ -0,0 +1,106 @@
+package com.joonsang.example.QueryDSL.repository;
+
+import com.joonsang.example.QueryDSL.dto.MemberSearchCondition;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MemberSearchCoalescerTest {
+
+    MemberDataVersion memberDataVersion = new MemberDataVersion();
+
+    @Test
+    @DisplayName("실행 중인 같은 조회에 합쳐서 결과 공유")
+    public void coalesce() throws Exception {
+        MemberSearchCoalescer coalescer = new MemberSearchCoalescer(memberDataVersion, new SimpleMeterRegistry(), true, 3000);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger executions = new AtomicInteger();
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Future<String> leader = executor.submit(() -> coalescer.execute("v2", condition("teamA"), PageRequest.of(0, 10), () -> {
+                executions.incrementAndGet();
+                started.countDown();
+                await(release);
+                return "result";
+            }));
+            started.await(1, TimeUnit.SECONDS);
+
+            Future<String> follower1 = executor.submit(() -> coalescer.execute("v2", condition("teamA"), PageRequest.of(0, 10), () -> {
+                executions.incrementAndGet();
+                return "follower";
+            }));
+            Future<String> follower2 = executor.submit(() -> coalescer.execute("v2", condition("teamA"), PageRequest.of(0, 10), () -> {
+                executions.incrementAndGet();
+                return "follower";
+            }));
+            Thread.sleep(100);
+            release.countDown();
+
+            assertThat(leader.get()).isEqualTo("result");
+            assertThat(follower1.get()).isEqualTo("result");
+            assertThat(follower2.get()).isEqualTo("result");
+            assertThat(executions.get()).isEqualTo(1);
+            assertThat(coalescer.getCoalescedCount()).isEqualTo(2);
+            assertThat(coalescer.inFlightSize()).isZero();
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // 실행 중인 조회가 없으면 새로 실행
+        assertThat(coalescer.execute("v2", condition("teamA"), PageRequest.of(0, 10), () -> "again")).isEqualTo("again");
+    }
+
+    @Test
+    @DisplayName("기다리는 시간이 지나면 직접 조회")
+    public void timeout() throws Exception {
+        MemberSearchCoalescer coalescer = new MemberSearchCoalescer(memberDataVersion, new SimpleMeterRegistry(), true, 50);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            executor.submit(() -> coalescer.execute("v1", condition("teamA"), PageRequest.of(0, 10), () -> {
+                started.countDown();
+                await(release);
+                return "slow";
+            }));
+            started.await(1, TimeUnit.SECONDS);
+
+            String result = coalescer.execute("v1", condition("teamA"), PageRequest.of(0, 10), () -> "direct");
+            assertThat(result).isEqualTo("direct");
+            assertThat(coalescer.getTimeoutCount()).isEqualTo(1);
+
+            // 다른 조건은 합치지 않음
+            assertThat(coalescer.execute("v1", condition("teamB"), PageRequest.of(0, 10), () -> "teamB")).isEqualTo("teamB");
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    private static MemberSearchCondition condition(String teamName) {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName(teamName);
+        return condition;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
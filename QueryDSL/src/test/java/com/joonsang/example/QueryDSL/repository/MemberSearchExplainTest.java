@@ -0,0 +1,181 @@
+package com.joonsang.example.QueryDSL.repository;
+
+import com.joonsang.example.QueryDSL.dto.MemberSearchCondition;
+import com.joonsang.example.QueryDSL.entity.Member;
+import com.joonsang.example.QueryDSL.entity.Team;
+import com.p6spy.engine.common.StatementInformation;
+import com.p6spy.engine.event.JdbcEventListener;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static com.joonsang.example.QueryDSL.repository.MemberSearchShape.*;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 인덱스 검증 하네스
+ * - 64가지 검색 조건 모양마다 실제 실행된 SQL 을 H2 EXPLAIN ANALYZE 로 확인
+ * - 인덱스를 탈 수 있는 조건(username, teamName, usernamePrefix, usernameContains)이 있는데
+ *   member / member_username_gram 테이블을 임계치 이상 풀 스캔하면 실패
+ * - 나이 조건만 있거나 조건이 없는 모양은 풀 스캔이 정상이므로 제외
+ * - ANALYZE 는 H2 에서 암묵적으로 커밋하므로 테스트 트랜잭션(롤백)을 쓰지 않는다.
+ *   전용 인메모리 DB 에 한번만 적재하고, 끝나면 직접 지운다.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:member-explain;DB_CLOSE_DELAY=-1")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class MemberSearchExplainTest {
+
+    private static final int MEMBER_COUNT = 3000;
+    private static final int TEAM_COUNT = 30;
+    private static final int SCAN_THRESHOLD = 1000;
+
+    private static final Pattern MEMBER_TABLE_SCAN =
+            Pattern.compile("MEMBER\"?\\.tableScan\\s*\\*/\\s*/\\*\\s*scanCount:\\s*(\\d+)", Pattern.CASE_INSENSITIVE);
+
+    private static final Pattern GRAM_TABLE_SCAN =
+            Pattern.compile("MEMBER_USERNAME_GRAM\"?\\.tableScan\\s*\\*/\\s*/\\*\\s*scanCount:\\s*(\\d+)", Pattern.CASE_INSENSITIVE);
+
+    @PersistenceContext
+    EntityManager em;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Autowired
+    SqlCapture sqlCapture;
+
+    @TestConfiguration
+    static class Config {
+        @Bean
+        SqlCapture sqlCapture() {
+            return new SqlCapture();
+        }
+    }
+
+    /**
+     * p6spy 로 실제 실행된 SQL (바인딩 값 포함)을 기록
+     */
+    static class SqlCapture extends JdbcEventListener {
+        private final List<String> sqls = new CopyOnWriteArrayList<>();
+        private volatile boolean recording;
+
+        @Override
+        public void onAfterAnyExecute(StatementInformation statementInformation, long timeElapsedNanos, SQLException e) {
+            if (recording) {
+                sqls.add(statementInformation.getSqlWithValues());
+            }
+        }
+
+        List<String> record(Runnable runnable) {
+            sqls.clear();
+            recording = true;
+            try {
+                runnable.run();
+            } finally {
+                recording = false;
+            }
+            return new ArrayList<>(sqls);
+        }
+    }
+
+    @BeforeAll
+    public void before() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            List<Team> teams = new ArrayList<>();
+            for (int i = 0; i < TEAM_COUNT; i++) {
+                Team team = new Team("team" + i);
+                em.persist(team);
+                teams.add(team);
+            }
+
+            for (int i = 0; i < MEMBER_COUNT; i++) {
+                em.persist(new Member("member" + i, i % 100, teams.get(i % TEAM_COUNT)));
+            }
+        });
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @AfterAll
+    public void after() {
+        jdbcTemplate.update("delete from member_username_gram");
+        jdbcTemplate.update("delete from member");
+        jdbcTemplate.update("delete from team");
+    }
+
+    @Test
+    @DisplayName("64가지 검색 조건 모양별 실행 계획")
+    public void explainAllShapes() {
+        List<String> violations = new ArrayList<>();
+
+        for (int shape = 0; shape < 64; shape++) {
+            MemberSearchCondition condition = condition(shape);
+            List<String> sqls = sqlCapture.record(() -> memberRepository.search(condition));
+
+            for (String sql : sqls) {
+                if (!sql.toLowerCase().contains("from member")) {
+                    continue;
+                }
+
+                String plan = jdbcTemplate.queryForObject("EXPLAIN ANALYZE " + sql, String.class);
+                System.out.println("shape=" + name(shape) + " plan=" + plan);
+
+                long scanned = tableScanCount(MEMBER_TABLE_SCAN, plan);
+                if (indexable(shape) && scanned > SCAN_THRESHOLD) {
+                    violations.add(name(shape) + " -> member tableScan " + scanned + " rows");
+                }
+
+                long gramScanned = tableScanCount(GRAM_TABLE_SCAN, plan);
+                if (gramScanned > SCAN_THRESHOLD) {
+                    violations.add(name(shape) + " -> member_username_gram tableScan " + gramScanned + " rows");
+                }
+            }
+        }
+
+        assertThat(violations).isEmpty();
+    }
+
+    private boolean indexable(int shape) {
+        return has(shape, USERNAME) || has(shape, TEAM_NAME)
+                || has(shape, USERNAME_PREFIX) || has(shape, USERNAME_CONTAINS);
+    }
+
+    private long tableScanCount(Pattern tableScan, String plan) {
+        Matcher matcher = tableScan.matcher(plan);
+        return matcher.find() ? Long.parseLong(matcher.group(1)) : 0;
+    }
+
+    private MemberSearchCondition condition(int shape) {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        if (has(shape, USERNAME)) condition.setUsername("member1500");
+        if (has(shape, TEAM_NAME)) condition.setTeamName("team5");
+        if (has(shape, AGE_GOE)) condition.setAgeGoe(20);
+        if (has(shape, AGE_LOE)) condition.setAgeLoe(40);
+        if (has(shape, USERNAME_PREFIX)) condition.setUsernamePrefix("member15");
+        if (has(shape, USERNAME_CONTAINS)) condition.setUsernameContains("er150");
+        return condition;
+    }
+}
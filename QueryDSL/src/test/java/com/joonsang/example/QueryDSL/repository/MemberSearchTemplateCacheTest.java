@@ -0,0 +1,79 @@
+package com.joonsang.example.QueryDSL.repository;
+
+import com.joonsang.example.QueryDSL.dto.MemberSearchCondition;
+import com.joonsang.example.QueryDSL.dto.MemberTeamDto;
+import com.joonsang.example.QueryDSL.entity.Member;
+import com.joonsang.example.QueryDSL.entity.Team;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.transaction.Transactional;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Transactional
+class MemberSearchTemplateCacheTest {
+
+    @PersistenceContext
+    EntityManager em;
+
+    @Autowired
+    MemberSearchTemplateCache templateCache;
+
+    @BeforeEach
+    public void before() {
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+        em.persist(teamA);
+        em.persist(teamB);
+
+        em.persist(new Member("member1", 10, teamA));
+        em.persist(new Member("member2", 20, teamA));
+        em.persist(new Member("member3", 30, teamB));
+        em.persist(new Member("member4", 40, teamB));
+    }
+
+    @Test
+    @DisplayName("모양이 같으면 템플릿 재사용, 값만 바꿔서 바인딩")
+    public void reuseTemplate() {
+        MemberSearchCondition teamA = new MemberSearchCondition();
+        teamA.setTeamName("teamA");
+        teamA.setAgeGoe(15);
+
+        MemberSearchCondition teamB = new MemberSearchCondition();
+        teamB.setTeamName("teamB");
+        teamB.setAgeGoe(35);
+
+        templateCache.fetch(teamA);
+        long missCount = templateCache.getMissCount();
+        long hitCount = templateCache.getHitCount();
+
+        List<MemberTeamDto> result = templateCache.fetch(teamB);
+
+        assertThat(result).extracting("username").containsExactly("member4");
+        assertThat(templateCache.getMissCount()).isEqualTo(missCount);
+        assertThat(templateCache.getHitCount()).isEqualTo(hitCount + 1);
+    }
+
+    @Test
+    @DisplayName("모양별 JPQL")
+    public void jpqlPerShape() {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setUsername("member1");
+        condition.setAgeLoe(20);
+
+        String jpql = templateCache.getJpql(condition);
+
+        assertThat(jpql).contains("member1.username = ?1");
+        assertThat(jpql).contains("member1.age <= ?2");
+        assertThat(jpql).doesNotContain("team.name =");
+        assertThat(templateCache.fetch(condition)).extracting("username").containsExactly("member1");
+    }
+}
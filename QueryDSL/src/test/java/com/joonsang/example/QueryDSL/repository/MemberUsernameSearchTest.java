@@ -0,0 +1,106 @@
+package com.joonsang.example.QueryDSL.repository;
+
+import com.joonsang.example.QueryDSL.dto.MemberSearchCondition;
+import com.joonsang.example.QueryDSL.dto.MemberTeamDto;
+import com.joonsang.example.QueryDSL.entity.Member;
+import com.joonsang.example.QueryDSL.entity.Team;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.transaction.Transactional;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Transactional
+class MemberUsernameSearchTest {
+
+    @PersistenceContext
+    EntityManager em;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    Member alice;
+
+    @BeforeEach
+    public void before() {
+        Team teamA = new Team("teamA");
+        em.persist(teamA);
+
+        alice = new Member("qqalice", 10, teamA);
+        em.persist(alice);
+        em.persist(new Member("qqalicia", 20, teamA));
+        em.persist(new Member("qqbob", 30, teamA));
+        em.persist(new Member("xqqmalice", 40, teamA));
+        em.persist(new Member("qq%lic", 50, teamA));
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    @DisplayName("회원명 시작 문자열 (범위 조건)")
+    public void usernamePrefix() {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setUsernamePrefix("qqali");
+
+        assertThat(usernames(memberRepository.search(condition))).containsExactlyInAnyOrder("qqalice", "qqalicia");
+        assertThat(usernames(memberRepository.searchByBuilder(condition))).containsExactlyInAnyOrder("qqalice", "qqalicia");
+        assertThat(memberRepository.searchPageSimple(condition, PageRequest.of(0, 10)).getTotalElements()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("회원명 포함 문자열 (3-gram 색인 / 3글자 미만 like)")
+    public void usernameContains() {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setUsernameContains("alic");
+
+        assertThat(usernames(memberRepository.search(condition))).containsExactlyInAnyOrder("qqalice", "qqalicia", "xqqmalice");
+        assertThat(usernames(memberRepository.searchByBuilder(condition))).containsExactlyInAnyOrder("qqalice", "qqalicia", "xqqmalice");
+        assertThat(memberRepository.searchPageSimple(condition, PageRequest.of(0, 10)).getTotalElements()).isEqualTo(3);
+
+        // like 특수문자는 문자 그대로 비교
+        condition.setUsernameContains("qq%l");
+        assertThat(usernames(memberRepository.search(condition))).containsExactly("qq%lic");
+
+        condition.setUsernameContains("ob");
+        assertThat(usernames(memberRepository.search(condition))).containsExactly("qqbob");
+    }
+
+    @Test
+    @DisplayName("회원명 변경 / 삭제 시 3-gram 색인 동기화")
+    public void gramSync() {
+        Member member = em.find(Member.class, alice.getId());
+        member.setUsername("qqzorro");
+        em.flush();
+
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setUsernameContains("zorr");
+        assertThat(usernames(memberRepository.search(condition))).containsExactly("qqzorro");
+
+        condition.setUsernameContains("alic");
+        assertThat(usernames(memberRepository.search(condition))).containsExactlyInAnyOrder("qqalicia", "xqqmalice");
+
+        em.remove(member);
+        em.flush();
+        assertThat(gramCount(alice.getId())).isZero();
+    }
+
+    private long gramCount(Long memberId) {
+        return em.createQuery("select count(g) from MemberUsernameGram g where g.memberId = :memberId", Long.class)
+                .setParameter("memberId", memberId)
+                .getSingleResult();
+    }
+
+    private static List<String> usernames(List<MemberTeamDto> result) {
+        return result.stream().map(MemberTeamDto::getUsername).collect(Collectors.toList());
+    }
+}
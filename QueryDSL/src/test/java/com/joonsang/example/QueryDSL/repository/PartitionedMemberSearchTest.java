@@ -0,0 +1,223 @@
+package com.joonsang.example.QueryDSL.repository;
+
+import com.joonsang.example.QueryDSL.datasource.MemberSearchPartitions;
+import com.joonsang.example.QueryDSL.datasource.StatementScope;
+import com.joonsang.example.QueryDSL.dto.MemberSearchCondition;
+import com.joonsang.example.QueryDSL.dto.MemberTeamDto;
+import com.joonsang.example.QueryDSL.entity.Member;
+import com.joonsang.example.QueryDSL.entity.Team;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * 로컬 H2 인메모리 DB 세 개를 team_id 기준 파티션으로 사용
+ * - 파티션은 원본 member 테이블의 커밋 후 복제본이므로, 테스트 트랜잭션(롤백) 없이 직접 커밋하고 끝나면 지운다.
+ */
+@SpringBootTest(properties = {
+        "app.datasource.search-partitions.enabled=true",
+        "app.datasource.search-partitions.urls=jdbc:h2:mem:partition0;DB_CLOSE_DELAY=-1,jdbc:h2:mem:partition1;DB_CLOSE_DELAY=-1,jdbc:h2:mem:partition2;DB_CLOSE_DELAY=-1",
+        "app.datasource.search-partitions.key=TEAM_ID",
+        "member.bulk.chunk-size=3"
+})
+class PartitionedMemberSearchTest {
+
+    @PersistenceContext
+    EntityManager em;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    MemberBulkOperations memberBulkOperations;
+
+    @Autowired
+    PartitionedMemberStore partitionedMemberStore;
+
+    @Autowired
+    MemberSearchPartitions memberSearchPartitions;
+
+    TransactionTemplate transactionTemplate;
+
+    Team teamA;
+    Team teamB;
+    Team teamC;
+
+    @BeforeEach
+    public void before() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.executeWithoutResult(status -> {
+            teamA = new Team("partTeamA");
+            teamB = new Team("partTeamB");
+            teamC = new Team("partTeamC");
+            em.persist(teamA);
+            em.persist(teamB);
+            em.persist(teamC);
+
+            em.persist(new Member("part1", 10, teamA));
+            em.persist(new Member("part2", 20, teamB));
+            em.persist(new Member("part3", 30, teamC));
+            em.persist(new Member("part4", 40, teamA));
+            em.persist(new Member("part5", 50, teamB));
+            em.persist(new Member("part6", 60, teamC));
+        });
+    }
+
+    @AfterEach
+    public void after() {
+        transactionTemplate.executeWithoutResult(status -> {
+            em.createQuery("select m from Member m where m.username like 'part%'", Member.class)
+                    .getResultList()
+                    .forEach(em::remove);
+            em.createQuery("select t from Team t where t.name like 'partTeam%'", Team.class)
+                    .getResultList()
+                    .forEach(em::remove);
+        });
+        partitionedMemberStore.deleteAll();
+    }
+
+    @Test
+    @DisplayName("커밋된 회원이 파티션으로 복제되고, 모든 파티션에서 조회해서 정렬 순서대로 병합, 전체 카운트는 파티션별 합")
+    public void scatterGather() {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setUsernamePrefix("part");
+
+        List<MemberTeamDto> all = memberRepository.search(condition);
+        assertThat(all).extracting("username").containsExactly("part1", "part2", "part3", "part4", "part5", "part6");
+        assertThat(all).extracting("teamName").containsExactly(
+                "partTeamA", "partTeamB", "partTeamC", "partTeamA", "partTeamB", "partTeamC");
+
+        Page<MemberTeamDto> first = memberRepository.searchPageComplex(condition,
+                PageRequest.of(0, 2, Sort.by(Sort.Order.desc("age"))));
+        assertThat(first.getContent()).extracting("username").containsExactly("part6", "part5");
+        assertThat(first.getTotalElements()).isEqualTo(6);
+
+        Page<MemberTeamDto> second = memberRepository.searchPageSimple(condition,
+                PageRequest.of(1, 2, Sort.by(Sort.Order.desc("age"))));
+        assertThat(second.getContent()).extracting("username").containsExactly("part4", "part3");
+
+        Page<MemberTeamDto> last = memberRepository.searchPageSimple(condition,
+                PageRequest.of(1, 4, Sort.by("username")));
+        assertThat(last.getContent()).extracting("username").containsExactly("part5", "part6");
+        assertThat(last.getTotalElements()).isEqualTo(6);
+    }
+
+    @Test
+    @DisplayName("팀명 조건이면 그 팀이 있는 파티션만 조회")
+    public void singlePartition() {
+        assertThat(memberSearchPartitions.partitionsFor(Collections.singletonList(teamB.getId()))).hasSize(1);
+        assertThat(memberSearchPartitions.partitionsFor(null)).hasSize(3);
+
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("partTeamB");
+        condition.setAgeGoe(15);
+
+        List<MemberTeamDto> result = memberRepository.search(condition);
+        assertThat(result).extracting("username").containsExactly("part2", "part5");
+        assertThat(result).extracting("teamName").containsOnly("partTeamB");
+
+        condition.setTeamName("noSuchTeam");
+        assertThat(memberRepository.search(condition)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("팀 이동은 파티션을 옮기고, 롤백된 변경은 반영하지 않고, 벌크 삭제는 범위로 다시 복제")
+    public void mirror() {
+        MemberSearchCondition teamACondition = new MemberSearchCondition();
+        teamACondition.setTeamName("partTeamA");
+        MemberSearchCondition teamBCondition = new MemberSearchCondition();
+        teamBCondition.setTeamName("partTeamB");
+
+        transactionTemplate.executeWithoutResult(status -> {
+            Member part1 = em.createQuery("select m from Member m where m.username = 'part1'", Member.class)
+                    .getSingleResult();
+            part1.changeTeam(em.find(Team.class, teamB.getId()));
+        });
+        assertThat(memberRepository.search(teamACondition)).extracting("username").containsExactly("part4");
+        assertThat(memberRepository.search(teamBCondition)).extracting("username").containsExactly("part1", "part2", "part5");
+
+        MemberSearchCondition contains = new MemberSearchCondition();
+        contains.setUsernameContains("rt1");
+        assertThat(memberRepository.search(contains)).extracting("teamName").containsExactly("partTeamB");
+
+        transactionTemplate.executeWithoutResult(status -> {
+            em.persist(new Member("part7", 70, em.find(Team.class, teamA.getId())));
+            status.setRollbackOnly();
+        });
+        assertThat(memberRepository.search(teamACondition)).extracting("username").containsExactly("part4");
+
+        long deleted = memberBulkOperations.delete(teamBCondition, BulkProgressListener.NONE);
+        assertThat(deleted).isEqualTo(3);
+        assertThat(memberRepository.search(teamBCondition)).isEmpty();
+
+        MemberSearchCondition all = new MemberSearchCondition();
+        all.setUsernamePrefix("part");
+        assertThat(memberRepository.search(all)).extracting("username").containsExactly("part3", "part4", "part6");
+    }
+
+    @Test
+    @DisplayName("회원명 contains 는 파티션의 gram 색인으로 조회, 3글자 미만은 like 만")
+    public void contains() {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setUsernameContains("rt3");
+        assertThat(memberRepository.search(condition)).extracting("username").containsExactly("part3");
+
+        condition.setUsernameContains("art");
+        assertThat(memberRepository.search(condition)).hasSize(6);
+
+        condition.setUsernameContains("t5");
+        assertThat(memberRepository.search(condition)).extracting("username").containsExactly("part5");
+
+        condition.setUsernameContains("rt8");
+        assertThat(memberRepository.search(condition)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("요청 구간이 취소되었으면 파티션 조회를 실행하지 않음")
+    public void cancelled() {
+        StatementScope previous = StatementScope.begin(0);
+        try {
+            StatementScope.current().cancel();
+
+            MemberSearchCondition condition = new MemberSearchCondition();
+            condition.setUsernamePrefix("part");
+            assertThatThrownBy(() -> memberRepository.search(condition))
+                    .isInstanceOf(CancellationException.class);
+        } finally {
+            StatementScope.end(previous);
+        }
+    }
+
+    @Test
+    @DisplayName("파티션 모드 - 최대 건수 제한, 팀명 정렬은 지원하지 않음")
+    public void limits() {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setUsernamePrefix("part");
+
+        assertThat(memberRepository.search(condition, 6)).hasSize(6);
+        assertThatThrownBy(() -> memberRepository.search(condition, 5))
+                .isInstanceOf(RowLimitExceededException.class);
+
+        assertThatThrownBy(() -> memberRepository.searchPageSimple(condition, PageRequest.of(0, 2, Sort.by("teamName"))))
+                .isInstanceOf(UnsupportedSortException.class);
+    }
+}
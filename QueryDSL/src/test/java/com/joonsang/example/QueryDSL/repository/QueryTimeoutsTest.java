@@ -0,0 +1,52 @@
+package com.joonsang.example.QueryDSL.repository;
+
+import com.joonsang.example.QueryDSL.datasource.StatementScope;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class QueryTimeoutsTest {
+
+    @Test
+    @DisplayName("메서드 제한과 요청 마감 중 짧은 값, 초 단위로 올림")
+    public void currentMillis() {
+        assertThat(QueryTimeouts.currentMillis()).isNull();
+
+        Long previous = QueryTimeouts.set(1500L);
+        try {
+            assertThat(QueryTimeouts.currentMillis()).isEqualTo(2000);
+
+            QueryTimeouts.set(200L);
+            assertThat(QueryTimeouts.currentMillis()).isEqualTo(1000);
+
+            QueryTimeouts.set(10_000L);
+            StatementScope previousScope = StatementScope.begin(3000);
+            try {
+                assertThat(QueryTimeouts.currentMillis()).isEqualTo(3000);
+            } finally {
+                StatementScope.end(previousScope);
+            }
+        } finally {
+            QueryTimeouts.restore(previous);
+        }
+    }
+
+    @Test
+    @DisplayName("검색 조건 모양별 제한, 없으면 기본값")
+    public void policy() {
+        QueryTimeoutPolicy policy = new QueryTimeoutPolicy();
+        policy.setDefaultMs(10_000);
+        policy.getShapes().put("none", 5000L);
+        policy.getEndpoints().put("/v1/members", 4000L);
+
+        assertThat(policy.shapeTimeoutMillis(0)).isEqualTo(5000);
+        assertThat(policy.shapeTimeoutMillis(MemberSearchShape.TEAM_NAME)).isEqualTo(10_000);
+        assertThat(policy.shapeTimeoutMillis(null)).isEqualTo(10_000);
+        assertThat(policy.endpointTimeoutMillis("/v1/members")).isEqualTo(4000);
+        assertThat(policy.endpointTimeoutMillis("/v2/members")).isZero();
+
+        policy.setDefaultMs(0);
+        assertThat(policy.shapeTimeoutMillis(null)).isNull();
+    }
+}
@@ -0,0 +1,119 @@
+package com.joonsang.example.QueryDSL.repository;
+
+import com.joonsang.example.QueryDSL.dto.TeamMembersDto;
+import com.joonsang.example.QueryDSL.entity.Member;
+import com.joonsang.example.QueryDSL.entity.Team;
+import com.joonsang.example.QueryDSL.monitor.SqlStatementRecorder;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.transaction.Transactional;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static com.joonsang.example.QueryDSL.monitor.SqlStatementAssert.assertThatSql;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Transactional
+class TeamRepositoryTest {
+
+    @PersistenceContext
+    EntityManager em;
+
+    @Autowired
+    TeamRepository teamRepository;
+
+    @Autowired
+    TeamCache teamCache;
+
+    @Autowired
+    SqlStatementRecorder recorder;
+
+    @Test
+    @DisplayName("팀명 -> 팀 ID")
+    public void resolveTeamIds() {
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+        em.persist(teamA);
+        em.persist(teamB);
+
+        assertThat(teamRepository.resolveTeamIds("teamB")).containsExactly(teamB.getId());
+        assertThat(teamRepository.resolveTeamIds("teamZ")).isEmpty();
+        assertThat(teamRepository.resolveTeamIds("")).isNull();
+    }
+
+    @Test
+    @DisplayName("팀명 변경 후에도 최신 팀 ID 를 조회")
+    public void changeName() {
+        Team teamA = new Team("teamA");
+        em.persist(teamA);
+        assertThat(teamRepository.resolveTeamIds("teamA")).containsExactly(teamA.getId());
+
+        teamA.changeName("teamC");
+        teamCache.evict(teamA.getId());
+
+        assertThat(teamRepository.resolveTeamIds("teamA")).isEmpty();
+        assertThat(teamRepository.resolveTeamIds("teamC")).containsExactly(teamA.getId());
+    }
+
+    @Test
+    @DisplayName("팀 + 팀별 회원 페이징 - 팀 수와 무관하게 쿼리 수 고정")
+    public void searchTeamsWithMembers() {
+        for (int i = 0; i < 20; i++) {
+            Team team = new Team("batchTeam" + i);
+            em.persist(team);
+            for (int j = 0; j < 3; j++) {
+                em.persist(new Member("batchMember" + i + "_" + j, j, team));
+            }
+        }
+        em.flush();
+        em.clear();
+
+        AtomicReference<Page<TeamMembersDto>> result = new AtomicReference<>();
+        assertThatSql(recorder, () -> result.set(teamRepository.searchTeamsWithMembers(PageRequest.of(0, 1000))))
+                .executesAtMost(3)      // 팀 + 회원(IN) + 카운트
+                .hasNoNPlusOne();
+
+        Map<String, TeamMembersDto> teams = result.get().getContent().stream()
+                .collect(Collectors.toMap(TeamMembersDto::getTeamName, Function.identity(), (a, b) -> a));
+        for (int i = 0; i < 20; i++) {
+            assertThat(teams.get("batchTeam" + i).getMembers())
+                    .extracting("username")
+                    .containsExactly("batchMember" + i + "_0", "batchMember" + i + "_1", "batchMember" + i + "_2");
+        }
+    }
+
+    @Test
+    @DisplayName("팀 + 팀별 회원 페이징 - 팀마다 최대 members-per-team(20) 명, 더 있으면 hasMoreMembers")
+    public void membersPerTeam() {
+        Team big = new Team("bigTeam");
+        Team small = new Team("smallTeam");
+        em.persist(big);
+        em.persist(small);
+        for (int i = 0; i < 25; i++) {
+            em.persist(new Member(String.format("bigMember%02d", i), i, big));
+        }
+        em.persist(new Member("smallMember", 1, small));
+        em.flush();
+        em.clear();
+
+        Map<String, TeamMembersDto> teams = teamRepository.searchTeamsWithMembers(PageRequest.of(0, 1000)).getContent().stream()
+                .collect(Collectors.toMap(TeamMembersDto::getTeamName, Function.identity(), (a, b) -> a));
+
+        assertThat(teams.get("bigTeam").getMembers()).hasSize(20);
+        assertThat(teams.get("bigTeam").getMembers()).first().extracting("username").isEqualTo("bigMember00");
+        assertThat(teams.get("bigTeam").isHasMoreMembers()).isTrue();
+        assertThat(teams.get("smallTeam").getMembers()).extracting("username").containsExactly("smallMember");
+        assertThat(teams.get("smallTeam").isHasMoreMembers()).isFalse();
+    }
+}
@@ -0,0 +1,184 @@
+package com.joonsang.example.QueryDSL.repository;
+
+import com.joonsang.example.QueryDSL.dto.TeamStatisticsDto;
+import com.joonsang.example.QueryDSL.entity.Member;
+import com.joonsang.example.QueryDSL.entity.Team;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.internal.SessionFactoryImpl;
+import org.hibernate.proxy.HibernateProxy;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.PersistenceContext;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 커밋된 변경만 TeamStatistics 에 반영되는지 확인
+ * - POST_COMMIT 이벤트는 실제 커밋에서만 발생하므로, 테스트 트랜잭션(롤백) 없이 직접 커밋하고 끝나면 지운다.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class TeamStatisticsEventListenerTest {
+
+    @PersistenceContext
+    EntityManager em;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Autowired
+    TeamStatistics teamStatistics;
+
+    @Autowired
+    TeamStatisticsEventListener teamStatisticsEventListener;
+
+    @Autowired
+    MockMvc mockMvc;
+
+    TransactionTemplate transactionTemplate;
+
+    Long teamAId;
+    Long teamBId;
+
+    @BeforeEach
+    public void before() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.executeWithoutResult(status -> {
+            Team teamA = new Team("statTeamA");
+            Team teamB = new Team("statTeamB");
+            em.persist(teamA);
+            em.persist(teamB);
+            teamAId = teamA.getId();
+            teamBId = teamB.getId();
+        });
+    }
+
+    @AfterEach
+    public void after() {
+        transactionTemplate.executeWithoutResult(status -> {
+            em.createQuery("select m from Member m where m.username like 'statMember%'", Member.class)
+                    .getResultList()
+                    .forEach(em::remove);
+            em.createQuery("select t from Team t where t.name like 'statTeam%'", Team.class)
+                    .getResultList()
+                    .forEach(em::remove);
+        });
+    }
+
+    @Test
+    @DisplayName("POST_COMMIT 이벤트 리스너로 등록")
+    public void registered() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImpl.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+
+        assertThat(registry.getEventListenerGroup(EventType.POST_COMMIT_INSERT).listeners()).contains(teamStatisticsEventListener);
+        assertThat(registry.getEventListenerGroup(EventType.POST_COMMIT_UPDATE).listeners()).contains(teamStatisticsEventListener);
+        assertThat(registry.getEventListenerGroup(EventType.POST_COMMIT_DELETE).listeners()).contains(teamStatisticsEventListener);
+    }
+
+    @Test
+    @DisplayName("저장 / 나이 변경 + 팀 이동(프록시) / 롤백 / 삭제가 커밋될 때마다 반영")
+    public void committedChanges() {
+        Long memberId = transactionTemplate.execute(status -> {
+            Member member = new Member("statMember1", 10, em.find(Team.class, teamAId));
+            em.persist(member);
+            return member.getId();
+        });
+        assertThat(statisticsOf(teamAId)).isNotNull();
+        assertThat(statisticsOf(teamAId).getTeamName()).isEqualTo("statTeamA");
+        assertThat(statisticsOf(teamAId).getCount()).isEqualTo(1);
+        assertThat(statisticsOf(teamAId).getSum()).isEqualTo(10);
+        assertThat(statisticsOf(teamBId)).isNull();
+
+        // 변경 전 팀(oldState)과 변경 후 팀 모두 초기화되지 않은 프록시
+        transactionTemplate.executeWithoutResult(status -> {
+            em.clear();
+            Member member = em.find(Member.class, memberId);
+            assertThat(member.getTeam()).isInstanceOf(HibernateProxy.class);
+
+            member.changeAge(20);
+            member.changeTeam(em.getReference(Team.class, teamBId));
+        });
+        assertThat(statisticsOf(teamAId)).isNull();
+        assertThat(statisticsOf(teamBId).getCount()).isEqualTo(1);
+        assertThat(statisticsOf(teamBId).getSum()).isEqualTo(20);
+        assertThat(statisticsOf(teamBId).getMax()).isEqualTo(20);
+        assertThat(statisticsOf(teamBId).getMin()).isEqualTo(20);
+
+        // 롤백된 변경은 반영하지 않음
+        transactionTemplate.executeWithoutResult(status -> {
+            em.find(Member.class, memberId).changeAge(99);
+            em.persist(new Member("statMember2", 30, em.find(Team.class, teamAId)));
+            em.flush();
+            status.setRollbackOnly();
+        });
+        assertThat(statisticsOf(teamAId)).isNull();
+        assertThat(statisticsOf(teamBId).getSum()).isEqualTo(20);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            em.clear();
+            em.remove(em.find(Member.class, memberId));
+        });
+        assertThat(statisticsOf(teamAId)).isNull();
+        assertThat(statisticsOf(teamBId)).isNull();
+    }
+
+    @Test
+    @DisplayName("/v1/teams/statistics 는 메모리 집계를 반환하고, rebuild() 는 DB 기준으로 다시 집계")
+    public void endpointAndRebuild() throws Exception {
+        transactionTemplate.executeWithoutResult(status -> {
+            Team teamA = em.find(Team.class, teamAId);
+            em.persist(new Member("statMember1", 10, teamA));
+            em.persist(new Member("statMember2", 30, teamA));
+        });
+
+        String teamA = "$[?(@.teamId == " + teamAId + ")]";
+        mockMvc.perform(get("/v1/teams/statistics"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath(teamA + ".teamName").value(contains("statTeamA")))
+                .andExpect(jsonPath(teamA + ".count").value(contains(2)))
+                .andExpect(jsonPath(teamA + ".sum").value(contains(40)))
+                .andExpect(jsonPath(teamA + ".avg").value(contains(20.0)))
+                .andExpect(jsonPath(teamA + ".max").value(contains(30)))
+                .andExpect(jsonPath(teamA + ".min").value(contains(10)))
+                .andExpect(jsonPath("$[?(@.teamId == " + teamBId + ")]").isEmpty());
+
+        // 이벤트 없이 어긋난 집계 (벌크 연산 등)
+        teamStatistics.addMember(teamBId, 50);
+        teamStatistics.removeMember(teamAId, 10);
+        assertThat(statisticsOf(teamBId)).isNotNull();
+
+        teamStatistics.rebuild();
+        assertThat(statisticsOf(teamBId)).isNull();
+        assertThat(statisticsOf(teamAId).getCount()).isEqualTo(2);
+        assertThat(statisticsOf(teamAId).getSum()).isEqualTo(40);
+        assertThat(statisticsOf(teamAId).getMin()).isEqualTo(10);
+    }
+
+    private TeamStatisticsDto statisticsOf(Long teamId) {
+        return teamStatistics.findAll().stream()
+                .filter(statistics -> statistics.getTeamId().equals(teamId))
+                .findFirst()
+                .orElse(null);
+    }
+}
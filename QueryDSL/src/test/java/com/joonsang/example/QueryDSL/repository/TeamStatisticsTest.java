@@ -0,0 +1,58 @@
+package com.joonsang.example.QueryDSL.repository;
+
+import com.joonsang.example.QueryDSL.dto.TeamStatisticsDto;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TeamStatisticsTest {
+
+    TeamStatistics teamStatistics = new TeamStatistics(null);
+
+    @Test
+    @DisplayName("회원 추가 / 삭제 / 나이 변경 / 팀 이동 증분 반영")
+    public void incremental() {
+        teamStatistics.putTeamName(1L, "teamA");
+        teamStatistics.putTeamName(2L, "teamB");
+        teamStatistics.addMember(1L, 10);
+        teamStatistics.addMember(1L, 20);
+        teamStatistics.addMember(1L, 30);
+        teamStatistics.addMember(2L, 40);
+        teamStatistics.addMember(null, 50);     // 팀 없는 회원은 제외
+
+        // 나이 변경 (30 -> 35)
+        teamStatistics.removeMember(1L, 30);
+        teamStatistics.addMember(1L, 35);
+
+        // 팀 이동 (teamA 10살 -> teamB)
+        teamStatistics.removeMember(1L, 10);
+        teamStatistics.addMember(2L, 10);
+
+        List<TeamStatisticsDto> result = teamStatistics.findAll();
+        assertThat(result).extracting("teamName").containsExactly("teamA", "teamB");
+
+        TeamStatisticsDto teamA = result.get(0);
+        assertThat(teamA.getCount()).isEqualTo(2);
+        assertThat(teamA.getSum()).isEqualTo(55);
+        assertThat(teamA.getAvg()).isEqualTo(27.5);
+        assertThat(teamA.getMax()).isEqualTo(35);
+        assertThat(teamA.getMin()).isEqualTo(20);
+
+        TeamStatisticsDto teamB = result.get(1);
+        assertThat(teamB.getCount()).isEqualTo(2);
+        assertThat(teamB.getMax()).isEqualTo(40);
+        assertThat(teamB.getMin()).isEqualTo(10);
+    }
+
+    @Test
+    @DisplayName("마지막 회원이 빠지면 팀 통계 제거")
+    public void removeLastMember() {
+        teamStatistics.addMember(1L, 10);
+        teamStatistics.removeMember(1L, 10);
+
+        assertThat(teamStatistics.findAll()).isEmpty();
+    }
+}